@@ -2,18 +2,21 @@ package com.selcuk.FrameworkPages.pageObjects;
 
 import com.selcuk.FrameworkPages.root.RootPage;
 import com.selcuk.ProjectUtils.ElementUtilities;
+import com.selcuk.ProjectUtils.InteractionMetrics;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.How;
-import org.openqa.selenium.support.PageFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class RegisterPage extends RootPage {
     WebDriver driver;
     public RegisterPage(WebDriver driver){
         super(driver);
         this.driver = driver;
-        PageFactory.initElements(driver,this);
+        InteractionMetrics.initElements(driver,this);
     }
     @FindBy(how = How.ID,using = "input-firstname")
     private WebElement firstNameField;
@@ -90,7 +93,8 @@ public class RegisterPage extends RootPage {
     @FindBy(how = How.LINK_TEXT,using = "login page")
     private WebElement loginPageOption;
     public LoginPage selectLoginPageOption(){
-        ElementUtilities.clickOnElement(loginPageOption);
+        // LoginPage does not extend RootPage yet, so the login page is captured here
+        capturePagePerformanceAfter(() -> ElementUtilities.clickOnElement(loginPageOption));
         return new LoginPage();
     }
     public String getPasswordFieldDomAttribute(String attributeName){
@@ -247,6 +251,31 @@ public class RegisterPage extends RootPage {
         return ElementUtilities.getElementText(firstNameWarning);
     }
 
+    public Map<String, String> getAllFieldWarnings() {
+        return readTogether(() -> {
+            Map<String, String> warnings = new LinkedHashMap<>();
+            warnings.put("firstName", getFirstNameWarning());
+            warnings.put("lastName", getLastNameWarning());
+            warnings.put("email", getEmailWarning());
+            warnings.put("telephone", getTelephoneWarning());
+            warnings.put("password", getPasswordWarning());
+            warnings.put("passwordConfirm", getPasswordConfirmationWarning());
+            return warnings;
+        });
+    }
+
+    public Map<String, Boolean> getFieldWarningDisplayStatuses() {
+        return readTogether(() -> {
+            Map<String, Boolean> statuses = new LinkedHashMap<>();
+            statuses.put("firstName", isFirstNameWarningMessageDisplayed());
+            statuses.put("lastName", isLastNameWarningMessageDisplayed());
+            statuses.put("email", isEmailWarningMessageDisplayed());
+            statuses.put("telephone", isTelephoneWarningMessageDisplayed());
+            statuses.put("password", isPasswordWarningMessageDisplayed());
+            return statuses;
+        });
+    }
+
     public void selectYesNewsletterOption() {
         ElementUtilities.clickOnElement(yesNewsletterOption);
     }
@@ -1,15 +1,21 @@
 package com.selcuk.FrameworkPages.root;
 
+import com.selcuk.ProjectUtils.DomSnapshot;
+import com.selcuk.ProjectUtils.InteractionMetrics;
+import com.selcuk.ProjectUtils.PagePerformance;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.How;
-import org.openqa.selenium.support.PageFactory;
+
+import java.util.function.Supplier;
 
 public class RootPage {
     WebDriver driver;
     public RootPage(WebDriver driver){
-        PageFactory.initElements(driver,this);
+        this.driver = driver;
+        InteractionMetrics.initElements(driver,this);
+        capturePagePerformance();
     }
     @FindBy(how = How.XPATH, using = "//div[@id='content']/h1")
     private WebElement pageHeading;
@@ -22,6 +28,26 @@ public class RootPage {
     @FindBy(how = How.XPATH, using = "//div[@class='alert alert-success alert-dismissible']")
     private WebElement pageLevelSuccessMessage;
 
+    // Read-only checks on this page are answered from one captured snapshot until the next click or typing
+    public DomSnapshot captureDomSnapshot() {
+        return DomSnapshot.capture(driver, this);
+    }
+
+    // Independent reads on this page in one script call, e.g. every field warning after a failed submit
+    protected <T> T readTogether(Supplier<T> reads) {
+        return DomSnapshot.readTogether(driver, this, reads);
+    }
+
+    // Page objects are created after a page loads, so the constructor covers navigation into any RootPage subclass
+    protected void capturePagePerformance() {
+        PagePerformance.capture(driver);
+    }
+
+    // For a navigation into a page that is not a RootPage; the capture waits for this document to be replaced first
+    protected void capturePagePerformanceAfter(Runnable navigation) {
+        PagePerformance.captureAfter(driver, navigation);
+    }
+
 
 
 }
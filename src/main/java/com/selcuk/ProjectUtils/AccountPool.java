@@ -0,0 +1,211 @@
+package com.selcuk.ProjectUtils;
+
+import com.selcuk.FrameworkPages.pageObjects.RegisterPage;
+import org.openqa.selenium.WebDriver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Registered accounts created ahead of time in the background and leased to one test at a time.
+// The pool keeps targetSize accounts ready to lease; leased ones do not count, so it refills while tests hold them.
+// Released accounts go back into the pool, and the pool can be saved so the next run starts warm.
+public class AccountPool implements AutoCloseable {
+    public static final Path DEFAULT_POOL_FILE = Paths.get(System.getProperty("user.dir"), "Reports", "accountpool.csv");
+    // A failed registration is retried with a fresh identity; after that the slot waits for the next lease to refill
+    static final int MAX_ATTEMPTS = 3;
+
+    public interface AccountProvisioner extends AutoCloseable {
+        boolean provision(TestAccount account) throws Exception;
+
+        // Releases what the provisioner holds, e.g. its browsers; called once by AccountPool.close
+        @Override
+        default void close() {
+        }
+    }
+
+    private final AccountProvisioner provisioner;
+    private final String password;
+    private final int targetSize;
+    private final LinkedBlockingQueue<TestAccount> available = new LinkedBlockingQueue<>();
+    private final Set<TestAccount> leased = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ExecutorService workers;
+    private volatile boolean closed;
+
+    public AccountPool(AccountProvisioner provisioner, String password, int targetSize, int workerCount) {
+        this.provisioner = provisioner;
+        this.password = password;
+        this.targetSize = targetSize;
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "account-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public AccountPool start() {
+        refill();
+        return this;
+    }
+
+    public TestAccount lease(long timeoutMillis) {
+        TestAccount account;
+        try {
+            account = available.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (account != null) {
+            leased.add(account);
+        }
+        refill();
+        return account;
+    }
+
+    public void release(TestAccount account) {
+        if (account != null && leased.remove(account)) {
+            available.offer(account);
+        }
+    }
+
+    // For tests that changed the account in a way the next lessee must not see, e.g. a new password
+    public void discard(TestAccount account) {
+        if (account != null && leased.remove(account)) {
+            refill();
+        }
+    }
+
+    public int getAvailableCount() {
+        return available.size();
+    }
+
+    public int getLeasedCount() {
+        return leased.size();
+    }
+
+    private void refill() {
+        while (!closed && available.size() + inFlight.get() < targetSize) {
+            inFlight.incrementAndGet();
+            workers.submit(this::provisionOne);
+        }
+    }
+
+    private void provisionOne() {
+        try {
+            for (int attempt = 1; attempt <= MAX_ATTEMPTS && !closed; attempt++) {
+                TestAccount account = TestAccount.generate(password);
+                try {
+                    if (provisioner.provision(account)) {
+                        available.offer(account);
+                        return;
+                    }
+                } catch (Exception e) {
+                    if (closed) {
+                        return;
+                    }
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public void loadFrom(Path poolFile) {
+        if (!Files.exists(poolFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(poolFile, StandardCharsets.UTF_8)) {
+                TestAccount account = TestAccount.fromLine(line);
+                if (account != null) {
+                    available.offer(account);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Written to a temporary file and moved into place so a parallel reader never sees half a pool
+    public void saveTo(Path poolFile) {
+        List<TestAccount> accounts = new ArrayList<>(available);
+        accounts.addAll(leased);
+        try {
+            Files.createDirectories(poolFile.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(poolFile.toAbsolutePath().getParent(), "accountpool", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (TestAccount account : accounts) {
+                    writer.write(account.toLine());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, poolFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Stops provisioning, waits briefly for registrations in progress, then lets the provisioner release its browsers
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        provisioner.close();
+    }
+
+    // Registers through the UI with one browser per provisioning thread; the browsers are quit when the pool closes
+    public static AccountProvisioner registerPageProvisioner(Supplier<WebDriver> driverSupplier, String registerPageURL) {
+        List<WebDriver> created = new CopyOnWriteArrayList<>();
+        ThreadLocal<WebDriver> drivers = ThreadLocal.withInitial(() -> {
+            WebDriver driver = driverSupplier.get();
+            created.add(driver);
+            return driver;
+        });
+        return new AccountProvisioner() {
+            @Override
+            public boolean provision(TestAccount account) {
+                WebDriver driver = drivers.get();
+                driver.manage().deleteAllCookies();
+                driver.get(registerPageURL);
+                new RegisterPage(driver).registeringAnAccount(account.getFirstName(), account.getLastName(),
+                        account.getEmail(), account.getTelephone(), account.getPassword());
+                return driver.getCurrentUrl().contains("account/success");
+            }
+
+            @Override
+            public void close() {
+                for (WebDriver driver : created) {
+                    try {
+                        driver.quit();
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+                created.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Non-blocking versions of the ElementUtilities reads. Each call runs on a virtual thread (Java 21+, a small daemon
+// pool otherwise), so a page can issue several independent reads at once and wait for them together.
+// asyncMaxInFlight caps the driver calls in flight across all tests, to match what the grid can take.
+// A WebDriver session is not thread-safe, so asyncMaxPerSession (default 1) caps the calls in flight for the session of
+// each test thread: by default they still run one at a time, only off the test thread. Raise it only for drivers that
+// are known to accept concurrent commands on one session.
+// Only use it for reads; actions that change the page must stay in order on the test thread.
+public class AsyncElementUtilities {
+    private static final ExecutorService EXECUTOR = createExecutor();
+    private static final Semaphore IN_FLIGHT = new Semaphore(PropertyUtils.getIntProperty("asyncMaxInFlight", 64));
+    // DriverFactory hands each test thread its own session, so the calling thread stands for the session
+    private static final ThreadLocal<Semaphore> PER_SESSION = ThreadLocal.withInitial(() ->
+            new Semaphore(Math.max(1, PropertyUtils.getIntProperty("asyncMaxPerSession", 1))));
+
+    private static ExecutorService createExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "async-driver-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // The caller's test name and DOM snapshot are carried over, so InteractionMetrics still attributes the call to the
+    // right test and snapshotted reads are answered from memory as they would be on the test thread
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> command) {
+        String test = InteractionMetrics.getCurrentTest();
+        DomSnapshot snapshot = DomSnapshot.active();
+        Semaphore session = PER_SESSION.get();
+        return CompletableFuture.supplyAsync(() -> {
+            session.acquireUninterruptibly();
+            IN_FLIGHT.acquireUninterruptibly();
+            InteractionMetrics.startTest(test);
+            DomSnapshot.activate(snapshot);
+            try {
+                return command.get();
+            } finally {
+                DomSnapshot.invalidate();
+                InteractionMetrics.endTest();
+                IN_FLIGHT.release();
+                session.release();
+            }
+        }, EXECUTOR);
+    }
+
+    public static CompletableFuture<String> getElementText(WebElement element) {
+        return supplyAsync(() -> ElementUtilities.getElementText(element));
+    }
+
+    public static CompletableFuture<Boolean> isElementDisplayed(WebElement element) {
+        return supplyAsync(() -> ElementUtilities.isElementDisplayed(element));
+    }
+
+    public static CompletableFuture<Boolean> isElementSelected(WebElement element) {
+        return supplyAsync(() -> ElementUtilities.isElementSelected(element));
+    }
+
+    public static CompletableFuture<String> getElementDomAttribute(WebElement element, String attributeName) {
+        return supplyAsync(() -> ElementUtilities.getElementDomAttribute(element, attributeName));
+    }
+
+    public static CompletableFuture<String> getElementDomProperty(WebElement element, String propertyName) {
+        return supplyAsync(() -> ElementUtilities.getElementDomProperty(element, propertyName));
+    }
+
+    public static CompletableFuture<String> getElementCSSValue(WebElement element, String cssPropertyName) {
+        return supplyAsync(() -> ElementUtilities.getElementCSSValue(element, cssPropertyName));
+    }
+
+    public static CompletableFuture<List<String>> getTextOfElements(List<WebElement> elements) {
+        List<CompletableFuture<String>> texts = new ArrayList<>(elements.size());
+        for (WebElement element : elements) {
+            texts.add(getElementText(element));
+        }
+        return allOf(texts);
+    }
+
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<T> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    // Waits for every value and keeps the keys in the order given; the first failure is rethrown unwrapped
+    public static <K, V> Map<K, V> joinAll(Map<K, CompletableFuture<V>> futures) {
+        Map<K, V> results = new LinkedHashMap<>();
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+            for (Map.Entry<K, CompletableFuture<V>> future : futures.entrySet()) {
+                results.put(future.getKey(), future.getValue().join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+}
@@ -11,14 +11,11 @@ import ru.yandex.qatools.ashot.comparison.ImageDiff;
 import ru.yandex.qatools.ashot.comparison.ImageDiffer;
 
 import javax.imageio.ImageIO;
-import javax.mail.BodyPart;
 import javax.mail.Message;
-import javax.mail.internet.MimeMultipart;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.Date;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 
@@ -42,6 +39,7 @@ public class CommonUtils {
 
     }
     public static Object[][] getTestData(MyXLSReader xls_received, String testName, String sheetName) {
+        TestImpactIndex.recordSheet(sheetName);
 
         MyXLSReader xls = xls_received;
 
@@ -115,20 +113,15 @@ public class CommonUtils {
     }
 
     public static boolean areItemsInListAreInAscendingOrder(List<String> list) {
-        List<String> sortedList = list;
-        Collections.sort(sortedList);
-        return list.equals(sortedList);
+        return OrderVerifier.isSorted(list, OrderVerifier.NATURAL);
     }
 
-    public static String generateBrandNewEmail() {
-
-        Date date = new Date();
-        String dateString = date.toString();
-        String dateStringWithoutSpaces = dateString.replaceAll("\\s", "");
-        String dateStringWithoutSpacesAndColons = dateStringWithoutSpaces.replaceAll("\\:", "");
-        String brandNewEmail = dateStringWithoutSpacesAndColons + "@gmail.com";
-        return brandNewEmail;
+    public static boolean areItemsInListAreInAscendingOrder(List<String> list, Comparator<String> comparator) {
+        return OrderVerifier.isSorted(list, comparator);
+    }
 
+    public static String generateBrandNewEmail() {
+        return UniqueDataGenerator.generateEmail();
     }
 
     public static boolean compareTwoScreenshots(String actualImagePath, String expectedImagePath)  {
@@ -164,31 +157,10 @@ public class CommonUtils {
     }
 
     public static String getTextFromMessage(Message message) throws Exception {
-        String result = "";
-        if (message.isMimeType("text/plain")) {
-            result = message.getContent().toString();
-        } else if (message.isMimeType("text/html")) {
-            result = message.getContent().toString();
-        } else if (message.isMimeType("multipart/*")) {
-            MimeMultipart mimeMultipart = (MimeMultipart) message.getContent();
-            result = getTextFromMimeMultipart(mimeMultipart);
-        }
-        return result;
+        return MimeTextExtractor.extract(message).getAllText();
     }
 
-    private static String getTextFromMimeMultipart(MimeMultipart mimeMultipart) throws Exception {
-        StringBuilder result = new StringBuilder();
-        int count = mimeMultipart.getCount();
-        for (int i = 0; i < count; i++) {
-            BodyPart bodyPart = mimeMultipart.getBodyPart(i);
-            if (bodyPart.isMimeType("text/plain")) {
-                result.append(bodyPart.getContent());
-            } else if (bodyPart.isMimeType("text/html")) {
-                result.append(bodyPart.getContent());
-            } else if (bodyPart.getContent() instanceof MimeMultipart) {
-                result.append(getTextFromMimeMultipart((MimeMultipart) bodyPart.getContent()));
-            }
-        }
-        return result.toString();
+    public static String getPasswordResetLinkFromMessage(Message message) throws Exception {
+        return MimeTextExtractor.findPasswordResetLink(message);
     }
 }
@@ -0,0 +1,80 @@
+package com.selcuk.ProjectUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Runtime side of WorkbookDataCompiler: test data comes from the generated com.selcuk.TestData classes, which are
+// plain constant arrays, so a normal run never opens the workbook or loads POI. A sheet or block that was not compiled
+// (for instance while editing the workbook locally) is read from the workbook as before.
+public class CompiledTestData {
+    public static final String GENERATED_PACKAGE = "com.selcuk.TestData";
+
+    private static final Map<String, Class<?>> GENERATED = new ConcurrentHashMap<>();
+
+    public static Object[][] getTestData(String testName, String sheetName, String workbookPath) {
+        TestImpactIndex.recordSheet(sheetName);
+        Class<?> generated = GENERATED.computeIfAbsent(sheetName, CompiledTestData::findGeneratedClass);
+        if (generated != Missing.class) {
+            try {
+                Object[][] data = (Object[][]) generated.getMethod("get", String.class).invoke(null, testName);
+                if (data != null) {
+                    return data;
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Generated test data for sheet " + sheetName + " is unusable", e);
+            }
+        }
+        return WorkbookFallback.getTestData(testName, sheetName, workbookPath);
+    }
+
+    public static boolean isCompiled(String sheetName) {
+        return GENERATED.computeIfAbsent(sheetName, CompiledTestData::findGeneratedClass) != Missing.class;
+    }
+
+    private static Class<?> findGeneratedClass(String sheetName) {
+        try {
+            return Class.forName(GENERATED_PACKAGE + "." + className(sheetName));
+        } catch (ClassNotFoundException e) {
+            return Missing.class;
+        }
+    }
+
+    // "Register Data" -> RegisterDataTestData
+    public static String className(String sheetName) {
+        String identifier = identifier(sheetName);
+        return Character.toUpperCase(identifier.charAt(0)) + identifier.substring(1) + "TestData";
+    }
+
+    // "Login with valid data" -> loginWithValidData; a leading digit gets an underscore
+    public static String identifier(String name) {
+        StringBuilder identifier = new StringBuilder();
+        boolean upperNext = false;
+        for (char c : name.toCharArray()) {
+            if (Character.isLetterOrDigit(c) && c < 128) {
+                identifier.append(identifier.length() == 0 ? Character.toLowerCase(c) : upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            } else {
+                upperNext = true;
+            }
+        }
+        if (identifier.length() == 0 || Character.isDigit(identifier.charAt(0))) {
+            identifier.insert(0, '_');
+        }
+        return identifier.toString();
+    }
+
+    private static final class Missing {
+    }
+
+    // Kept in its own class so POI is only loaded when a lookup actually falls back to the workbook
+    private static final class WorkbookFallback {
+        private static final Map<String, MyXLSReader> READERS = new ConcurrentHashMap<>();
+
+        static Object[][] getTestData(String testName, String sheetName, String workbookPath) {
+            MyXLSReader reader = READERS.computeIfAbsent(workbookPath, MyXLSReader::new);
+            synchronized (reader) {
+                return CommonUtils.getTestData(reader, testName, sheetName);
+            }
+        }
+    }
+}
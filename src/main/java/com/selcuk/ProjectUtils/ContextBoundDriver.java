@@ -0,0 +1,254 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Interactive;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// WebDriver handed to one test when browserContexts=true. It stands for a single tab in its own BiDi user context
+// (separate cookies and storage) inside the SharedBrowser process, so page objects use it exactly like a dedicated driver.
+// Page loads (get, navigate()) are BiDi commands addressed to this tab and run without the browser lock. Every other
+// command takes the lock and switches the classic session to this tab first. Timeouts are kept per context: the implicit
+// wait is polled here, outside the lock, and script and page load timeouts are put on the session before each command.
+// Frames and extra windows are not tracked per context: a frame switch is lost when another context runs a command.
+class ContextBoundDriver implements InvocationHandler {
+    private static final Class<?>[] DRIVER_INTERFACES = {WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class,
+            Interactive.class, HasCapabilities.class, WrapsDriver.class};
+    private static final Class<?>[] ELEMENT_INTERFACES = {WebElement.class, TakesScreenshot.class, Locatable.class,
+            WrapsElement.class, WrapsDriver.class};
+    private static final long POLL_MILLIS = 100;
+
+    private final SharedBrowser browser;
+    private final String userContext;
+    private volatile String handle;
+    private volatile Duration implicitWait = Duration.ZERO;
+    private volatile Duration scriptTimeout;
+    private volatile Duration pageLoadTimeout;
+    private WebDriver proxy;
+
+    private ContextBoundDriver(SharedBrowser browser, String userContext, String handle) {
+        this.browser = browser;
+        this.userContext = userContext;
+        this.handle = handle;
+        this.scriptTimeout = browser.getDefaultScriptTimeout();
+        this.pageLoadTimeout = browser.getDefaultPageLoadTimeout();
+    }
+
+    static WebDriver create(SharedBrowser browser, String userContext, String handle) {
+        ContextBoundDriver context = new ContextBoundDriver(browser, userContext, handle);
+        context.proxy = (WebDriver) Proxy.newProxyInstance(ContextBoundDriver.class.getClassLoader(), DRIVER_INTERFACES, context);
+        return context.proxy;
+    }
+
+    @Override
+    public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getWrappedDriver":
+                return browser.getRawDriver();
+            case "quit":
+            case "close":
+                browser.closeContext(userContext, handle);
+                return null;
+            case "getWindowHandles":
+                return Collections.singleton(handle);
+            case "get":
+                browser.navigate(handle, (String) args[0]);
+                return null;
+            case "navigate":
+                return navigation();
+            case "findElement":
+            case "findElements":
+                return find(browser.getRawDriver(), method, args);
+            case "toString":
+                return "ContextBoundDriver(" + userContext + ")";
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "equals":
+                return self == args[0];
+            default:
+                return call(browser.getRawDriver(), method, args);
+        }
+    }
+
+    private Object call(Object target, Method method, Object[] args) throws Throwable {
+        browser.lock();
+        try {
+            browser.activate(handle);
+            browser.applyTimeouts(scriptTimeout, pageLoadTimeout);
+            Object result = method.invoke(target, unwrap(args));
+            if (target instanceof WebDriver.TargetLocator && method.getName().equals("window")) {
+                handle = browser.getRawDriver().getWindowHandle();
+                browser.activated(handle);
+            }
+            return wrap(result, method.getReturnType());
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            browser.unlock();
+        }
+    }
+
+    // The session's own implicit wait stays at zero; this context's wait is spent here, retrying outside the lock, so a
+    // missing element does not hold up every other test
+    private Object find(Object target, Method method, Object[] args) throws Throwable {
+        long deadline = System.nanoTime() + implicitWait.toNanos();
+        while (true) {
+            try {
+                Object found = call(target, method, args);
+                if (!(found instanceof List) || !((List<?>) found).isEmpty() || System.nanoTime() >= deadline) {
+                    return found;
+                }
+            } catch (NoSuchElementException e) {
+                if (System.nanoTime() >= deadline) {
+                    throw e;
+                }
+            }
+            Thread.sleep(Math.min(POLL_MILLIS, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+        }
+    }
+
+    private Object wrap(Object result, Class<?> type) {
+        if (result == null) {
+            return null;
+        }
+        if (result instanceof WebDriver) {
+            return proxy;
+        }
+        if (result instanceof WebElement) {
+            return bind(result, ELEMENT_INTERFACES);
+        }
+        if (result instanceof List && type == List.class) {
+            List<Object> wrapped = new ArrayList<>(((List<?>) result).size());
+            for (Object item : (List<?>) result) {
+                wrapped.add(item instanceof WebElement ? bind(item, ELEMENT_INTERFACES) : item);
+            }
+            return wrapped;
+        }
+        if (type == WebDriver.Timeouts.class) {
+            return timeouts();
+        }
+        if (type == WebDriver.TargetLocator.class || type == WebDriver.Options.class
+                || type == WebDriver.Window.class || type == Alert.class) {
+            return bind(result, new Class<?>[]{type});
+        }
+        return result;
+    }
+
+    // Elements and nested driver objects (manage(), switchTo()) also switch to this tab before each call
+    private Object bind(Object target, Class<?>[] interfaces) {
+        return Proxy.newProxyInstance(ContextBoundDriver.class.getClassLoader(), interfaces, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getWrappedElement":
+                    return target;
+                case "getWrappedDriver":
+                    return proxy;
+                case "findElement":
+                case "findElements":
+                    return target instanceof WebElement ? find(target, method, args) : call(target, method, args);
+                case "toString":
+                    return target.toString();
+                case "hashCode":
+                    return target.hashCode();
+                case "equals":
+                    return args[0] instanceof WrapsElement && target.equals(((WrapsElement) args[0]).getWrappedElement())
+                            || target.equals(args[0]);
+                default:
+                    return call(target, method, args);
+            }
+        });
+    }
+
+    private WebDriver.Navigation navigation() {
+        return (WebDriver.Navigation) Proxy.newProxyInstance(ContextBoundDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.Navigation.class}, (self, method, args) -> {
+                    switch (method.getName()) {
+                        case "to":
+                            browser.navigate(handle, String.valueOf(args[0]));
+                            return null;
+                        case "back":
+                            browser.traverseHistory(handle, -1);
+                            return null;
+                        case "forward":
+                            browser.traverseHistory(handle, 1);
+                            return null;
+                        case "refresh":
+                            browser.reload(handle);
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "equals":
+                            return self == args[0];
+                        default:
+                            return "Navigation(" + userContext + ")";
+                    }
+                });
+    }
+
+    private WebDriver.Timeouts timeouts() {
+        return (WebDriver.Timeouts) Proxy.newProxyInstance(ContextBoundDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.Timeouts.class}, (self, method, args) -> {
+                    switch (method.getName()) {
+                        case "implicitlyWait":
+                            implicitWait = duration(args);
+                            return self;
+                        case "scriptTimeout":
+                        case "setScriptTimeout":
+                            scriptTimeout = duration(args);
+                            return self;
+                        case "pageLoadTimeout":
+                            pageLoadTimeout = duration(args);
+                            return self;
+                        case "getImplicitWaitTimeout":
+                            return implicitWait;
+                        case "getScriptTimeout":
+                            return scriptTimeout;
+                        case "getPageLoadTimeout":
+                            return pageLoadTimeout;
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "equals":
+                            return self == args[0];
+                        default:
+                            return "Timeouts(" + userContext + ")";
+                    }
+                });
+    }
+
+    // Duration, or the deprecated (long, TimeUnit) pair
+    private static Duration duration(Object[] args) {
+        return args.length == 1 ? (Duration) args[0] : Duration.of((Long) args[0], ((TimeUnit) args[1]).toChronoUnit());
+    }
+
+    // Covers executeScript varargs too, which arrive as a nested Object[]
+    private static Object[] unwrap(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] unwrapped = args.clone();
+        for (int i = 0; i < unwrapped.length; i++) {
+            if (unwrapped[i] instanceof WrapsElement && Proxy.isProxyClass(unwrapped[i].getClass())) {
+                unwrapped[i] = ((WrapsElement) unwrapped[i]).getWrappedElement();
+            } else if (unwrapped[i] instanceof Object[]) {
+                unwrapped[i] = unwrap((Object[]) unwrapped[i]);
+            }
+        }
+        return unwrapped;
+    }
+}
@@ -0,0 +1,280 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Read-only view of a page, captured in one script call. Every @FindBy locator of the page object is resolved in the
+// browser and its visibility, text and attributes are brought back; until the snapshot is cleared, getElementText,
+// isElementDisplayed and getElementDomAttribute answer those locators from memory instead of the browser.
+// Navigation, switching windows or frames, and every click, typing or key action on the driver clear it. Take it only
+// once the page has settled, and clear it yourself after anything else that changes the page (scripts, timers, late
+// content arriving while you wait).
+public class DomSnapshot {
+    private static final ThreadLocal<DomSnapshot> ACTIVE = new ThreadLocal<>();
+    // HTML boolean attributes, which the WebDriver "Get Element Attribute" command reports as "true" when present
+    private static final Set<String> BOOLEAN_ATTRIBUTES = Set.of("allowfullscreen", "async", "autofocus", "autoplay",
+            "checked", "controls", "default", "defer", "disabled", "formnovalidate", "hidden", "inert", "ismap",
+            "itemscope", "loop", "multiple", "muted", "nomodule", "novalidate", "open", "playsinline", "readonly",
+            "required", "reversed", "selected");
+
+    private static final String CAPTURE_SCRIPT =
+            "var locators = arguments[0], out = {};"
+            + "function find(how, using) {"
+            + "  switch (how) {"
+            + "    case 'id': return document.getElementById(using);"
+            + "    case 'name': return document.getElementsByName(using)[0] || null;"
+            + "    case 'cssSelector': return document.querySelector(using);"
+            + "    case 'className': return document.getElementsByClassName(using)[0] || null;"
+            + "    case 'tagName': return document.getElementsByTagName(using)[0] || null;"
+            + "    case 'xpath': return document.evaluate(using, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'linkText': case 'partialLinkText':"
+            + "      var links = document.getElementsByTagName('a');"
+            + "      for (var i = 0; i < links.length; i++) {"
+            + "        var text = links[i].innerText.trim();"
+            + "        if (how === 'linkText' ? text === using : text.indexOf(using) >= 0) { return links[i]; }"
+            + "      }"
+            + "      return null;"
+            + "  }"
+            + "  return null;"
+            + "}"
+            // Selenium's isDisplayed: hidden by style or with no size, unless a child with size or text shows through
+            + "function positiveSize(e) {"
+            + "  var rect = e.getBoundingClientRect();"
+            + "  if (rect.width > 0 && rect.height > 0) { return true; }"
+            + "  if (getComputedStyle(e).overflow === 'hidden') { return false; }"
+            + "  for (var c = e.firstChild; c; c = c.nextSibling) {"
+            + "    if (c.nodeType === 3 || (c.nodeType === 1 && positiveSize(c))) { return true; }"
+            + "  }"
+            + "  return false;"
+            + "}"
+            + "function styleVisible(e) {"
+            + "  if (e.checkVisibility) { return e.checkVisibility({opacityProperty: true, visibilityProperty: true}); }"
+            + "  for (var a = e; a; a = a.parentElement) {"
+            + "    var style = getComputedStyle(a);"
+            + "    if (style.display === 'none' || style.opacity === '0') { return false; }"
+            + "  }"
+            + "  return getComputedStyle(e).visibility === 'visible';"
+            + "}"
+            + "function displayed(e) {"
+            + "  var tag = e.tagName.toLowerCase();"
+            + "  if (tag === 'body') { return true; }"
+            + "  if (tag === 'option' || tag === 'optgroup') { var select = e.closest('select'); return !select || displayed(select); }"
+            + "  if (tag === 'input' && e.type === 'hidden') { return false; }"
+            + "  return styleVisible(e) && positiveSize(e);"
+            + "}"
+            + "for (var key in locators) {"
+            + "  var e = find(locators[key][0], locators[key][1]);"
+            + "  if (!e) { continue; }"
+            + "  var attributes = {};"
+            + "  for (var j = 0; j < e.attributes.length; j++) { attributes[e.attributes[j].name] = e.attributes[j].value; }"
+            + "  out[key] = {displayed: displayed(e), text: (e.innerText || '').trim(), attributes: attributes};"
+            + "}"
+            + "return out;";
+
+    public static class Node {
+        private final boolean displayed;
+        private final String text;
+        private final Map<String, String> attributes;
+
+        Node(boolean displayed, String text, Map<String, String> attributes) {
+            this.displayed = displayed;
+            this.text = text;
+            this.attributes = attributes;
+        }
+
+        public boolean isDisplayed() {
+            return displayed;
+        }
+
+        // Same rule as ElementUtilities.getElementText: hidden elements read as empty
+        public String getText() {
+            return displayed ? text : "";
+        }
+
+        // Same answers as WebElement.getDomAttribute: boolean attributes read "true" whatever their value
+        public String getAttribute(String name) {
+            String lowerCase = name.toLowerCase(Locale.ROOT);
+            if (BOOLEAN_ATTRIBUTES.contains(lowerCase)) {
+                return attributes.containsKey(lowerCase) ? "true" : null;
+            }
+            String value = attributes.get(name);
+            return value != null ? value : attributes.get(lowerCase);
+        }
+    }
+
+    // Attached to every driver by InteractionMetrics.decorate: loading another document, switching to another one, or
+    // clicking, typing and key actions (which follow links and submit forms) clear the snapshot of the calling thread
+    // The decorator only calls the catch-all hooks directly; the named ones go through reflection on this class
+    static final WebDriverListener INVALIDATOR = new WebDriverListener() {
+        @Override
+        public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+            if (method.getName().equals("get") || method.getName().equals("perform")) {
+                invalidate();
+            }
+        }
+
+        @Override
+        public void beforeAnyNavigationCall(WebDriver.Navigation navigation, Method method, Object[] args) {
+            invalidate();
+        }
+
+        @Override
+        public void beforeAnyTargetLocatorCall(WebDriver.TargetLocator targetLocator, Method method, Object[] args) {
+            invalidate();
+        }
+
+        @Override
+        public void beforeAnyAlertCall(Alert alert, Method method, Object[] args) {
+            invalidate();
+        }
+
+        @Override
+        public void beforeAnyWebElementCall(WebElement element, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "click":
+                case "submit":
+                case "sendKeys":
+                case "clear":
+                    invalidate();
+                    break;
+                default:
+                    break;
+            }
+        }
+    };
+
+    private final Map<String, Node> nodes;
+    // The page's own PageFactory proxies, by identity: their toString locates the element first, so they are not
+    // looked up by locator text
+    private final Map<WebElement, String> fields;
+
+    private DomSnapshot(Map<String, Node> nodes, Map<WebElement, String> fields) {
+        this.nodes = nodes;
+        this.fields = fields;
+    }
+
+    // Captures every @FindBy field of the page object (and its superclasses) and makes the snapshot active on this thread
+    public static DomSnapshot capture(WebDriver driver, Object page) {
+        Map<String, List<String>> locators = new LinkedHashMap<>();
+        Map<WebElement, String> fields = new IdentityHashMap<>();
+        for (Class<?> type = page.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FindBy.class) && field.getType() == WebElement.class) {
+                    By by = new Annotations(field).buildBy();
+                    List<String> strategy = splitLocator(by.toString());
+                    if (strategy != null) {
+                        locators.put(by.toString(), strategy);
+                        WebElement element = fieldValue(field, page);
+                        if (element != null) {
+                            fields.put(element, by.toString());
+                        }
+                    }
+                }
+            }
+        }
+        Map<String, Node> nodes = new HashMap<>();
+        Object result = ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT, locators);
+        if (result instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) result).entrySet()) {
+                nodes.put(String.valueOf(entry.getKey()), toNode((Map<?, ?>) entry.getValue()));
+            }
+        }
+        DomSnapshot snapshot = new DomSnapshot(Collections.unmodifiableMap(nodes), fields);
+        ACTIVE.set(snapshot);
+        return snapshot;
+    }
+
+    // Answers a group of independent reads from one capture: a single script call instead of one or more commands per
+    // read. An active snapshot is used as it is; otherwise one is taken for the reads and cleared after them
+    public static <T> T readTogether(WebDriver driver, Object page, Supplier<T> reads) {
+        if (isActive()) {
+            return reads.get();
+        }
+        capture(driver, page);
+        try {
+            return reads.get();
+        } finally {
+            invalidate();
+        }
+    }
+
+    private static WebElement fieldValue(Field field, Object page) {
+        try {
+            field.setAccessible(true);
+            return (WebElement) field.get(page);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // One entry of the capture script's result: {displayed, text, attributes}
+    static Node toNode(Map<?, ?> values) {
+        Map<String, String> attributes = new HashMap<>();
+        for (Map.Entry<?, ?> attribute : ((Map<?, ?>) values.get("attributes")).entrySet()) {
+            attributes.put(String.valueOf(attribute.getKey()), String.valueOf(attribute.getValue()));
+        }
+        return new Node(Boolean.TRUE.equals(values.get("displayed")), String.valueOf(values.get("text")), attributes);
+    }
+
+    // "By.xpath: //a" -> [xpath, //a]; chained and composite locators are not snapshotted
+    private static List<String> splitLocator(String locator) {
+        int colon = locator.indexOf(": ");
+        if (!locator.startsWith("By.") || colon < 0) {
+            return null;
+        }
+        return List.of(locator.substring(3, colon), locator.substring(colon + 2));
+    }
+
+    // Null when no snapshot is active or it does not hold this element, so the caller goes to the browser as usual
+    public static Node lookup(WebElement element) {
+        DomSnapshot snapshot = ACTIVE.get();
+        if (snapshot == null || element == null) {
+            return null;
+        }
+        String locator = snapshot.fields.get(element);
+        return snapshot.nodes.get(locator != null ? locator : InteractionMetrics.describeLocator(element));
+    }
+
+    public static void invalidate() {
+        ACTIVE.remove();
+    }
+
+    // For handing the snapshot of a test thread over to the threads doing its reads
+    static DomSnapshot active() {
+        return ACTIVE.get();
+    }
+
+    static void activate(DomSnapshot snapshot) {
+        if (snapshot == null) {
+            ACTIVE.remove();
+        } else {
+            ACTIVE.set(snapshot);
+        }
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+}
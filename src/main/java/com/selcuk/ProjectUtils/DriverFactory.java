@@ -0,0 +1,128 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+// Creates one driver per thread from browserName, browserProfile and windowSize in projectdata.properties.
+// HEADLESS keeps the normal browser but without a window; HEADLESS_LEAN also drops images, extensions and background traffic.
+// With browserContexts=true each thread gets an isolated context inside one SharedBrowser process instead.
+// Startup times go to InteractionMetrics per browser and profile, so they appear in its report and Prometheus dump.
+public class DriverFactory {
+    public enum LaunchProfile {
+        DEFAULT, HEADLESS, HEADLESS_LEAN
+    }
+
+    private static final ThreadLocal<WebDriver> DRIVERS = new ThreadLocal<>();
+
+    public static WebDriver getDriver() {
+        WebDriver driver = DRIVERS.get();
+        if (driver == null) {
+            LocalStorefrontServer.startIfEnabled();
+            driver = PropertyUtils.getBooleanProperty("browserContexts", false)
+                    ? InteractionMetrics.decorate(SharedBrowser.getInstance().openContext())
+                    : createDriver();
+            DRIVERS.set(driver);
+        }
+        return driver;
+    }
+
+    // The driver this thread already has, or null; unlike getDriver it never starts one
+    static WebDriver getCurrentDriver() {
+        return DRIVERS.get();
+    }
+
+    public static void quitDriver() {
+        WebDriver driver = DRIVERS.get();
+        if (driver != null) {
+            DRIVERS.remove();
+            driver.quit();
+        }
+    }
+
+    public static WebDriver createDriver() {
+        LaunchProfile profile = LaunchProfile.valueOf(PropertyUtils.getProperty("browserProfile", "DEFAULT").trim().toUpperCase());
+        return createDriver(PropertyUtils.getProperty("browserName", "chrome"), profile);
+    }
+
+    public static WebDriver createDriver(String browserName, LaunchProfile profile) {
+        LocalStorefrontServer.startIfEnabled();
+        Dimension windowSize = parseWindowSize(PropertyUtils.getProperty("windowSize", "1366x768"));
+        long start = System.nanoTime();
+        WebDriver driver;
+        String browser = browserName.trim().toLowerCase();
+        if (browser.equals("firefox")) {
+            driver = new FirefoxDriver(firefoxOptions(profile, windowSize));
+        } else if (browser.equals("edge")) {
+            driver = new EdgeDriver(edgeOptions(profile, windowSize));
+        } else {
+            driver = new ChromeDriver(chromeOptions(profile, windowSize));
+        }
+        // Chrome and Edge; Firefox has no CDP and is left as it is
+        NetworkPolicy.fromProperties().apply(driver);
+        if (profile == LaunchProfile.DEFAULT) {
+            driver.manage().window().setSize(windowSize);
+        }
+        recordStartup(browser, profile, false, start);
+        return InteractionMetrics.decorate(driver);
+    }
+
+    public static ChromeOptions chromeOptions(LaunchProfile profile, Dimension windowSize) {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--no-first-run", "--no-default-browser-check", "--disable-default-apps");
+        options.addArguments(NetworkPolicy.getCacheArguments());
+        if (profile != LaunchProfile.DEFAULT) {
+            // Headless windows default to 800x600, which changes layout and CSS values, so the size is always set
+            options.addArguments("--headless=new", "--window-size=" + windowSize.getWidth() + "," + windowSize.getHeight());
+        }
+        if (profile == LaunchProfile.HEADLESS_LEAN) {
+            options.addArguments("--disable-extensions", "--disable-gpu", "--disable-background-networking",
+                    "--disable-background-timer-throttling", "--disable-renderer-backgrounding", "--disable-sync",
+                    "--disable-component-update", "--disable-dev-shm-usage", "--mute-audio",
+                    "--blink-settings=imagesEnabled=false");
+        }
+        return options;
+    }
+
+    public static FirefoxOptions firefoxOptions(LaunchProfile profile, Dimension windowSize) {
+        FirefoxOptions options = new FirefoxOptions();
+        if (profile != LaunchProfile.DEFAULT) {
+            options.addArguments("-headless", "-width=" + windowSize.getWidth(), "-height=" + windowSize.getHeight());
+        }
+        if (profile == LaunchProfile.HEADLESS_LEAN) {
+            options.addPreference("permissions.default.image", 2);
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("app.update.enabled", false);
+            options.addPreference("browser.safebrowsing.enabled", false);
+        }
+        return options;
+    }
+
+    public static EdgeOptions edgeOptions(LaunchProfile profile, Dimension windowSize) {
+        EdgeOptions options = new EdgeOptions();
+        options.addArguments(NetworkPolicy.getCacheArguments());
+        if (profile != LaunchProfile.DEFAULT) {
+            options.addArguments("--headless=new", "--window-size=" + windowSize.getWidth() + "," + windowSize.getHeight());
+        }
+        if (profile == LaunchProfile.HEADLESS_LEAN) {
+            options.addArguments("--disable-extensions", "--disable-gpu", "--disable-background-networking",
+                    "--disable-dev-shm-usage", "--blink-settings=imagesEnabled=false");
+        }
+        return options;
+    }
+
+    // A shared browser is kept apart from per-test drivers: it starts once per run and carries the BiDi connection
+    static void recordStartup(String browser, LaunchProfile profile, boolean shared, long startNanos) {
+        InteractionMetrics.recordStartup(browser + " " + profile + (shared ? " shared" : ""), System.nanoTime() - startNanos);
+    }
+
+    static Dimension parseWindowSize(String size) {
+        String[] parts = size.toLowerCase().split("x");
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+}
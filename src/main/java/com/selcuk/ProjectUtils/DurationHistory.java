@@ -0,0 +1,81 @@
+package com.selcuk.ProjectUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Smoothed duration per work item (class#method#row), kept between runs so shards can be balanced by expected cost
+public class DurationHistory {
+    public static final Path DEFAULT_FILE = Paths.get(System.getProperty("user.dir"), "Reports", "test-durations.properties");
+    private static final double SMOOTHING = 0.3;
+    private static final long UNKNOWN_DEFAULT_MILLIS = 10_000;
+
+    private final Path file;
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    public DurationHistory(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            Properties prop = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                prop.load(reader);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            for (String key : prop.stringPropertyNames()) {
+                try {
+                    durations.put(key, Long.parseLong(prop.getProperty(key)));
+                } catch (NumberFormatException e) {
+                    // ignore a corrupted entry; it is rewritten on the next save
+                }
+            }
+        }
+    }
+
+    // Items never seen before are assumed to cost the median of the known ones, so they are neither first nor last
+    public long getExpectedMillis(String key) {
+        Long known = durations.get(key);
+        return known != null ? known : getMedianMillis();
+    }
+
+    public long getMedianMillis() {
+        List<Long> values = new ArrayList<>(durations.values());
+        if (values.isEmpty()) {
+            return UNKNOWN_DEFAULT_MILLIS;
+        }
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    public void record(String key, long millis) {
+        durations.merge(key, millis, (previous, latest) -> Math.round(previous * (1 - SMOOTHING) + latest * SMOOTHING));
+    }
+
+    public void save() {
+        Properties prop = new Properties();
+        for (Map.Entry<String, Long> duration : durations.entrySet()) {
+            prop.setProperty(duration.getKey(), String.valueOf(duration.getValue()));
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "test-durations", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                prop.store(writer, "Smoothed test durations in milliseconds");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
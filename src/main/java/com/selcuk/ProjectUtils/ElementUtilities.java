@@ -23,84 +23,120 @@ public class ElementUtilities {
         this.driver = driver;
     }
     public static List<String> getTextOfElements(List<WebElement> items) {
-        List<String> itemNames = new ArrayList<>();
-        for (WebElement item : items){
-            itemNames.add(getElementText(item));
-        }
-        return itemNames;
+        return InteractionMetrics.call("getTextOfElements", null, () -> {
+            List<String> itemNames = new ArrayList<>();
+            for (WebElement item : items){
+                itemNames.add(getElementText(item));
+            }
+            return itemNames;
+        });
     }
     public static String getElementText(WebElement element){
-        String elementTest = "";
-        if (isElementDisplayed(element)){
-            elementTest = element.getText();
-        }
-        return elementTest;
+        return InteractionMetrics.call("getElementText", element, () -> {
+            DomSnapshot.Node snapshot = DomSnapshot.lookup(element);
+            if (snapshot != null) {
+                return snapshot.getText();
+            }
+            String elementTest = "";
+            if (isElementDisplayed(element)){
+                elementTest = element.getText();
+            }
+            return elementTest;
+        });
     }
     public static boolean isElementDisplayed(WebElement element) {
-        boolean b = false;
-        try {
-            b = element.isDisplayed();
-        } catch (NoSuchElementException e) {
-            b = false;
-        }
-        return b;
+        return InteractionMetrics.call("isElementDisplayed", element, () -> {
+            DomSnapshot.Node snapshot = DomSnapshot.lookup(element);
+            if (snapshot != null) {
+                return snapshot.isDisplayed();
+            }
+            boolean b = false;
+            try {
+                b = element.isDisplayed();
+            } catch (NoSuchElementException e) {
+                b = false;
+            }
+            return b;
+        });
     }
     public static boolean isElementDisplayedOnPage(WebElement element) {
-        boolean b = false;
-        b = element.isDisplayed();
-        return b;
+        return InteractionMetrics.call("isElementDisplayedOnPage", element, () -> {
+            boolean b = false;
+            b = element.isDisplayed();
+            return b;
+        });
     }
     public static void selectOptionDropdownByIndex(WebElement element,int index){
-        if (isElementDisplayedOnPage(element) && element.isEnabled()){
-            select = new Select(element);
-            select.selectByIndex(index);
-        }
+        InteractionMetrics.run("selectOptionDropdownByIndex", element, () -> {
+            DomSnapshot.invalidate();
+            if (isElementDisplayedOnPage(element) && element.isEnabled()){
+                select = new Select(element);
+                select.selectByIndex(index);
+            }
+        });
     }
     public static void selectOptionDropdownByVisibleText(WebElement element,String option){
-        if (isElementDisplayedOnPage(element) && element.isEnabled()){
-            select = new Select(element);
-            select.selectByVisibleText(option);
-        }
+        InteractionMetrics.run("selectOptionDropdownByVisibleText", element, () -> {
+            DomSnapshot.invalidate();
+            if (isElementDisplayedOnPage(element) && element.isEnabled()){
+                select = new Select(element);
+                select.selectByVisibleText(option);
+            }
+        });
     }
     public static void waitForElement(WebElement element,int seconds){
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(seconds));
-        wait.until(ExpectedConditions.visibilityOf(element));
-    }
-    public static boolean waitAndCheckElementDisplayStatus(WebElement element, int seconds) {
-        boolean b = false;
-        try {
+        InteractionMetrics.run("waitForElement", element, () -> {
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(seconds));
             wait.until(ExpectedConditions.visibilityOf(element));
-            b = true;
-        }catch(Exception e) {
-            b = false;
-        }
-        return b;
+        });
+    }
+    public static boolean waitAndCheckElementDisplayStatus(WebElement element, int seconds) {
+        return InteractionMetrics.call("waitAndCheckElementDisplayStatus", element, () -> {
+            boolean b = false;
+            try {
+                WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(seconds));
+                wait.until(ExpectedConditions.visibilityOf(element));
+                b = true;
+            }catch(Exception e) {
+                b = false;
+            }
+            return b;
+        });
     }
     public static void waitForElementAndClick(WebElement element, int seconds) {
-        waitForElement(element, seconds);
-        clickOnElement(element);
+        InteractionMetrics.run("waitForElementAndClick", element, () -> {
+            waitForElement(element, seconds);
+            clickOnElement(element);
+        });
     }
     public static void clickOnElement(WebElement element) {
-        if (isElementDisplayedOnPage(element) && element.isEnabled()) {
-            element.click();
-        }
+        InteractionMetrics.run("clickOnElement", element, () -> {
+            DomSnapshot.invalidate();
+            if (isElementDisplayedOnPage(element) && element.isEnabled()) {
+                element.click();
+            }
+        });
     }
     public static void clickEitherOfTheseElements(WebElement elementOne, WebElement elementTwo) {
-        if(isElementDisplayedOnPageWithoutException(elementOne)) {
-            elementOne.click();
-        }else {
-            elementTwo.click();
-        }
+        InteractionMetrics.run("clickEitherOfTheseElements", elementOne, () -> {
+            DomSnapshot.invalidate();
+            if(isElementDisplayedOnPageWithoutException(elementOne)) {
+                elementOne.click();
+            }else {
+                elementTwo.click();
+            }
+        });
     }
     public static boolean isElementDisplayedOnPageWithoutException(WebElement element) {
-        boolean b = false;
-        try {
-            b = element.isDisplayed();
-        } catch (NoSuchElementException e) {
-            b = false;
-        }
-        return b;
+        return InteractionMetrics.call("isElementDisplayedOnPageWithoutException", element, () -> {
+            boolean b = false;
+            try {
+                b = element.isDisplayed();
+            } catch (NoSuchElementException e) {
+                b = false;
+            }
+            return b;
+        });
     }
     public static Actions getActions(WebDriver driver) {
         actions = new Actions(driver);
@@ -114,40 +150,61 @@ public class ElementUtilities {
                 .keyUp(Keys.CONTROL).build().perform();
     }
     public static void pasteTextIntoFieldUsingKeyboardKeys(WebElement element, WebDriver driver) {
-        actions = getActions(driver);
-        actions.click(element).keyDown(Keys.CONTROL).sendKeys("v")
-                .keyUp(Keys.CONTROL).build().perform();
+        InteractionMetrics.run("pasteTextIntoFieldUsingKeyboardKeys", element, () -> {
+            DomSnapshot.invalidate();
+            actions = getActions(driver);
+            actions.click(element).keyDown(Keys.CONTROL).sendKeys("v")
+                    .keyUp(Keys.CONTROL).build().perform();
+        });
     }
     public static String getElementDomAttribute(WebElement element, String attributeName) {
-        return element.getDomAttribute(attributeName);
+        return InteractionMetrics.call("getElementDomAttribute", element, () -> {
+            DomSnapshot.Node snapshot = DomSnapshot.lookup(element);
+            if (snapshot != null) {
+                return snapshot.getAttribute(attributeName);
+            }
+            return element.getDomAttribute(attributeName);
+        });
     }
     public static String getElementDomProperty(WebElement element, String attributeName) {
-        return element.getDomProperty(attributeName);
+        return InteractionMetrics.call("getElementDomProperty", element, () -> {
+            return element.getDomProperty(attributeName);
+        });
     }
 
     public static boolean isElementSelected(WebElement element) {
-        boolean b = false;
-        if (isElementDisplayedOnPage(element)) {
-            b = element.isSelected();
-        }
-        return b;
+        return InteractionMetrics.call("isElementSelected", element, () -> {
+            boolean b = false;
+            if (isElementDisplayedOnPage(element)) {
+                b = element.isSelected();
+            }
+            return b;
+        });
     }
     public static String getElementCSSValue(WebElement element, String cssPropertyName) {
-        String value = "";
-        value = element.getCssValue(cssPropertyName);
-        return value;
+        return InteractionMetrics.call("getElementCSSValue", element, () -> {
+            String value = "";
+            value = element.getCssValue(cssPropertyName);
+            return value;
+        });
     }
 
     public static void clearTextFromElement(WebElement element) {
-        if (isElementDisplayedOnPage(element) && element.isEnabled()) {
-            element.clear();
-        }
+        InteractionMetrics.run("clearTextFromElement", element, () -> {
+            DomSnapshot.invalidate();
+            if (isElementDisplayedOnPage(element) && element.isEnabled()) {
+                element.clear();
+            }
+        });
     }
     public static void enterTextIntoElement(WebElement element, String text) {
-        if (isElementDisplayedOnPage(element) && element.isEnabled()) {
-            clearTextFromElement(element);
-            element.sendKeys(text);
-        }
+        InteractionMetrics.run("enterTextIntoElement", element, () -> {
+            DomSnapshot.invalidate();
+            if (isElementDisplayedOnPage(element) && element.isEnabled()) {
+                clearTextFromElement(element);
+                element.sendKeys(text);
+            }
+        });
     }
 
     public static int getElementsCount(List<WebElement> elements) {
@@ -0,0 +1,285 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.IAnnotationTransformer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Failure signatures (test, exception type, locator, screenshot hash) and their history across runs.
+// A signature whose retries usually pass is FLAKY and gets retried; one whose retries keep failing is REAL and is not.
+// Registered for every TestNG run through META-INF/services/org.testng.ITestNGListener; it also attaches RetryAnalyzer
+// to every @Test that has no retry analyzer of its own. A failed attempt's screenshot goes to Reports/failure-screenshots.
+// Under ShardScheduler the forked workers only report their outcomes; the scheduler merges them and writes once.
+public class FailureTriage implements IAnnotationTransformer, ITestListener, ISuiteListener {
+    public static final Path HISTORY_FILE = Paths.get(System.getProperty("user.dir"), "Reports", "failure-history.properties");
+    public static final Path TRIAGE_REPORT = Paths.get(System.getProperty("user.dir"), "Reports", "failure-triage.csv");
+    public static final Path SCREENSHOT_DIRECTORY = Paths.get(System.getProperty("user.dir"), "Reports", "failure-screenshots");
+    public static final String SCREENSHOT_ATTRIBUTE = "screenshotPath";
+
+    public enum Classification {
+        UNKNOWN, FLAKY, REAL
+    }
+
+    private static final Pattern BY_LOCATOR = Pattern.compile("By\\.\\w+: [^'\\]\\n]+");
+    private static final Pattern JSON_LOCATOR = Pattern.compile("\"method\":\"([^\"]+)\",\"selector\":\"([^\"]+)\"");
+    // Per signature: [retries that passed, retries that failed again]
+    private static final Map<String, long[]> HISTORY = new ConcurrentHashMap<>(readHistory(HISTORY_FILE));
+    // What this run added and which signatures it saw, not yet written or reported to the scheduler
+    private static final Map<String, long[]> RUN_COUNTS = new ConcurrentHashMap<>();
+    private static final Map<String, String> PENDING_RETRIES = new ConcurrentHashMap<>();
+    private static final Set<String> RUN_SIGNATURES = ConcurrentHashMap.newKeySet();
+
+    // Set by ShardWorker: outcomes go to the scheduler instead of the files
+    static volatile boolean reportToScheduler;
+
+    // TestNG's own default (its "disabled" analyzer) is replaced; an analyzer the test chose itself is kept
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        Class<?> analyzer = annotation.getRetryAnalyzerClass();
+        if (analyzer == null || analyzer.getName().startsWith("org.testng.")) {
+            annotation.setRetryAnalyzer(RetryAnalyzer.class);
+        }
+    }
+
+    public static String signatureOf(ITestResult result) {
+        Throwable error = result.getThrowable();
+        String exception = error == null ? "none" : error.getClass().getSimpleName();
+        String locator = locatorOf(error);
+        Object screenshot = result.getAttribute(SCREENSHOT_ATTRIBUTE);
+        String screenshotHash = screenshot == null ? "-" : hashFile(Paths.get(screenshot.toString()));
+        return testKey(result) + "|" + exception + "|" + locator + "|" + screenshotHash;
+    }
+
+    // TestNG asks RetryAnalyzer before it calls onTestFailure, and a retry replaces the session, so whichever runs first
+    // takes the screenshot
+    static void captureScreenshot(ITestResult result) {
+        captureScreenshot(result, DriverFactory.getCurrentDriver());
+    }
+
+    static void captureScreenshot(ITestResult result, WebDriver driver) {
+        if (result.getAttribute(SCREENSHOT_ATTRIBUTE) != null || !(driver instanceof TakesScreenshot)) {
+            return;
+        }
+        try {
+            Files.createDirectories(SCREENSHOT_DIRECTORY);
+            Path file = SCREENSHOT_DIRECTORY.resolve(testKey(result).replaceAll("[^\\w.-]", "_") + "-" + System.nanoTime() + ".png");
+            CommonUtils.takeScreenshot(driver, file.toString());
+            if (Files.exists(file)) {
+                result.setAttribute(SCREENSHOT_ATTRIBUTE, file.toString());
+            }
+        } catch (IOException | WebDriverException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static String testKey(ITestResult result) {
+        return result.getTestClass().getName() + "#" + result.getMethod().getMethodName();
+    }
+
+    private static String locatorOf(Throwable error) {
+        String message = error == null || error.getMessage() == null ? "" : error.getMessage();
+        Matcher by = BY_LOCATOR.matcher(message);
+        if (by.find()) {
+            return by.group().trim();
+        }
+        Matcher json = JSON_LOCATOR.matcher(message);
+        if (json.find()) {
+            return "By." + json.group(1) + ": " + json.group(2);
+        }
+        // Assertion failures carry no locator; the last element this thread touched is the best lead
+        String last = InteractionMetrics.getLastLocator();
+        return last == null ? "-" : last;
+    }
+
+    private static String hashFile(Path file) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 6; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return "-";
+        }
+    }
+
+    public static Classification classify(String signature) {
+        long[] counts = HISTORY.get(signature);
+        if (counts == null || counts[0] + counts[1] == 0) {
+            return Classification.UNKNOWN;
+        }
+        return counts[0] * 2 >= counts[0] + counts[1] ? Classification.FLAKY : Classification.REAL;
+    }
+
+    static void retryScheduled(ITestResult result, String signature) {
+        PENDING_RETRIES.put(testKey(result) + paramsOf(result), signature);
+        RUN_SIGNATURES.add(signature);
+    }
+
+    private static String paramsOf(ITestResult result) {
+        return java.util.Arrays.deepToString(result.getParameters());
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        String signature = PENDING_RETRIES.remove(testKey(result) + paramsOf(result));
+        if (signature != null) {
+            count(signature, 1, 0);
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        captureScreenshot(result);
+        String pending = PENDING_RETRIES.remove(testKey(result) + paramsOf(result));
+        if (pending != null) {
+            count(pending, 0, 1);
+        }
+        RUN_SIGNATURES.add(signatureOf(result));
+    }
+
+    private static synchronized void count(String signature, long passed, long failed) {
+        long[] history = HISTORY.computeIfAbsent(signature, s -> new long[2]);
+        history[0] += passed;
+        history[1] += failed;
+        long[] run = RUN_COUNTS.computeIfAbsent(signature, s -> new long[2]);
+        run[0] += passed;
+        run[1] += failed;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!reportToScheduler) {
+            finishRun();
+        }
+    }
+
+    // "<retries passed> <retries failed> <signature>" per signature this JVM saw since the last call
+    static synchronized List<String> drainOutcomes() {
+        Set<String> signatures = new TreeSet<>(RUN_SIGNATURES);
+        signatures.addAll(RUN_COUNTS.keySet());
+        List<String> outcomes = new ArrayList<>();
+        for (String signature : signatures) {
+            long[] counts = RUN_COUNTS.getOrDefault(signature, new long[2]);
+            outcomes.add(counts[0] + " " + counts[1] + " " + signature);
+        }
+        RUN_SIGNATURES.clear();
+        RUN_COUNTS.clear();
+        return outcomes;
+    }
+
+    // Called by ShardScheduler for each outcome line a worker reported
+    static synchronized void mergeOutcome(String outcome) {
+        String[] parts = outcome.split(" ", 3);
+        RUN_SIGNATURES.add(parts[2]);
+        long passed = Long.parseLong(parts[0]);
+        long failed = Long.parseLong(parts[1]);
+        if (passed + failed > 0) {
+            count(parts[2], passed, failed);
+        }
+    }
+
+    // Adds this run's counts to the history as it is on disk now, then reports this run's signatures
+    public static synchronized void finishRun() {
+        Map<String, long[]> history = readHistory(HISTORY_FILE);
+        for (Map.Entry<String, long[]> run : RUN_COUNTS.entrySet()) {
+            long[] counts = history.computeIfAbsent(run.getKey(), s -> new long[2]);
+            counts[0] += run.getValue()[0];
+            counts[1] += run.getValue()[1];
+        }
+        HISTORY.putAll(history);
+        saveHistory(history);
+        writeReport();
+        RUN_COUNTS.clear();
+        RUN_SIGNATURES.clear();
+    }
+
+    private static void writeReport() {
+        try {
+            Files.createDirectories(TRIAGE_REPORT.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(TRIAGE_REPORT, StandardCharsets.UTF_8)) {
+                writer.write("classification,retriesPassed,retriesFailed,test,exception,locator,screenshotHash");
+                writer.newLine();
+                for (String signature : RUN_SIGNATURES) {
+                    long[] counts = HISTORY.getOrDefault(signature, new long[2]);
+                    StringBuilder row = new StringBuilder().append(classify(signature)).append(',')
+                            .append(counts[0]).append(',').append(counts[1]);
+                    for (String part : signature.split("\\|", 4)) {
+                        row.append(",\"").append(part.replace("\"", "\"\"")).append('"');
+                    }
+                    writer.write(row.toString());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Map<String, long[]> readHistory(Path file) {
+        Map<String, long[]> history = new HashMap<>();
+        if (!Files.exists(file)) {
+            return history;
+        }
+        Properties prop = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            prop.load(reader);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return history;
+        }
+        for (String signature : prop.stringPropertyNames()) {
+            String[] counts = prop.getProperty(signature).split(",");
+            history.put(signature, new long[]{Long.parseLong(counts[0]), Long.parseLong(counts[1])});
+        }
+        return history;
+    }
+
+    private static void saveHistory(Map<String, long[]> history) {
+        Properties prop = new Properties();
+        for (Map.Entry<String, long[]> entry : history.entrySet()) {
+            prop.setProperty(entry.getKey(), entry.getValue()[0] + "," + entry.getValue()[1]);
+        }
+        try {
+            Files.createDirectories(HISTORY_FILE.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(HISTORY_FILE.toAbsolutePath().getParent(), "failure-history", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                prop.store(writer, "Failure signature -> retries passed,retries failed");
+            }
+            Files.move(temp, HISTORY_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
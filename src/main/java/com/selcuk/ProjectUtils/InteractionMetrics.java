@@ -0,0 +1,331 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Count, WebDriver round-trips and latency for every ElementUtilities call, kept per locator, per page-object method and per test.
+// Round-trips are counted by a listener on the decorated driver. Disable with interactionMetrics=false.
+// Page-object methods are found by walking the stack once per outermost ElementUtilities call, which costs more than
+// the rest together, so it only happens with pageMethodMetrics=true or while TestImpactIndex is recording.
+public class InteractionMetrics {
+    // Before the flags: reading a property while TestImpactIndex records calls back into getCurrentTest
+    private static final ThreadLocal<CallStack> CALLS = ThreadLocal.withInitial(CallStack::new);
+
+    public static final boolean ENABLED = PropertyUtils.getBooleanProperty("interactionMetrics", true);
+    public static final boolean PAGE_METHODS = ENABLED && PropertyUtils.getBooleanProperty("pageMethodMetrics", false);
+
+    private static final Map<String, Stats> PER_LOCATOR = new ConcurrentHashMap<>();
+    private static final Map<String, Stats> PER_PAGE_METHOD = new ConcurrentHashMap<>();
+    private static final Map<String, Stats> PER_TEST = new ConcurrentHashMap<>();
+    private static final Map<String, Stats> PER_STARTUP = new ConcurrentHashMap<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String PAGE_PACKAGE = "com.selcuk.FrameworkPages";
+
+    public static class Stats {
+        public final LatencyHistogram latencyNanos = new LatencyHistogram();
+        public final LatencyHistogram roundTrips = new LatencyHistogram();
+
+        void record(long elapsedNanos, long roundTripCount) {
+            latencyNanos.record(elapsedNanos);
+            roundTrips.record(roundTripCount);
+        }
+    }
+
+    private static class CallStack {
+        long roundTrips;
+        long[] roundTripsAtStart = new long[8];
+        int depth;
+        String currentTest;
+        WebElement lastElement;
+        String lastLocator;
+    }
+
+    // DomSnapshot's listener is attached even with metrics off, so navigation always clears a captured snapshot
+    public static WebDriver decorate(WebDriver driver) {
+        if (!ENABLED) {
+            return new EventFiringDecorator<>(DomSnapshot.INVALIDATOR).decorate(driver);
+        }
+        return new EventFiringDecorator<>(DomSnapshot.INVALIDATOR, new WebDriverListener() {
+            @Override
+            public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+                CALLS.get().roundTrips++;
+            }
+
+            // toString, equals and hashCode are answered by the element object itself
+            @Override
+            public void beforeAnyWebElementCall(WebElement element, Method method, Object[] args) {
+                if (method.getDeclaringClass() != Object.class) {
+                    CALLS.get().roundTrips++;
+                }
+            }
+        }).decorate(driver);
+    }
+
+    public static void startTest(String testName) {
+        CALLS.get().currentTest = testName;
+    }
+
+    public static String getCurrentTest() {
+        return CALLS.get().currentTest;
+    }
+
+    public static void endTest() {
+        CALLS.get().currentTest = null;
+    }
+
+    // Locator of the most recent ElementUtilities call on this thread; failure triage uses it when an exception names none
+    public static String getLastLocator() {
+        return CALLS.get().lastLocator;
+    }
+
+    // Times one ElementUtilities call; calls it makes to other ElementUtilities methods are counted inside it
+    public static <T> T call(String operation, WebElement element, Supplier<T> call) {
+        if (!ENABLED) {
+            return call.get();
+        }
+        long start = start();
+        try {
+            return call.get();
+        } finally {
+            record(operation, element, start);
+        }
+    }
+
+    public static void run(String operation, WebElement element, Runnable action) {
+        call(operation, element, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static long start() {
+        CallStack calls = CALLS.get();
+        if (calls.depth == calls.roundTripsAtStart.length) {
+            calls.roundTripsAtStart = Arrays.copyOf(calls.roundTripsAtStart, calls.depth * 2);
+        }
+        calls.roundTripsAtStart[calls.depth++] = calls.roundTrips;
+        return System.nanoTime();
+    }
+
+    private static void record(String operation, WebElement element, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        CallStack calls = CALLS.get();
+        long roundTrips = calls.roundTrips - calls.roundTripsAtStart[--calls.depth];
+        // A nested call on the same element (isElementDisplayed inside getElementText) reuses its description
+        String locator = element == null ? "-" : element == calls.lastElement ? calls.lastLocator : describeLocator(element);
+        if (element != null) {
+            calls.lastElement = element;
+            calls.lastLocator = locator;
+            TestImpactIndex.recordLocator(locator);
+        }
+
+        stats(PER_LOCATOR, operation + " " + locator).record(elapsed, roundTrips);
+        if (calls.currentTest != null) {
+            stats(PER_TEST, calls.currentTest + " " + operation + " " + locator).record(elapsed, roundTrips);
+        }
+        // Nested helper calls are already inside their caller's numbers, so only the outermost call is attributed
+        if (calls.depth == 0 && (PAGE_METHODS || TestImpactIndex.isRecording())) {
+            String pageMethod = findPageMethod();
+            if (pageMethod != null) {
+                stats(PER_PAGE_METHOD, pageMethod).record(elapsed, roundTrips);
+                TestImpactIndex.recordPageMethod(pageMethod);
+            }
+        }
+    }
+
+    private static Stats stats(Map<String, Stats> map, String key) {
+        Stats stats = map.get(key);
+        return stats != null ? stats : map.computeIfAbsent(key, k -> new Stats());
+    }
+
+    private static String findPageMethod() {
+        Optional<StackWalker.StackFrame> frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(PAGE_PACKAGE))
+                .findFirst());
+        return frame.map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse(null);
+    }
+
+    // PageFactory.initElements, except that the proxies answer toString from their locator: a plain PageFactory proxy
+    // finds the element first, which would make describeLocator a browser command (and an implicit wait when missing)
+    public static void initElements(WebDriver driver, Object page) {
+        PageFactory.initElements(new DefaultFieldDecorator(new DefaultElementLocatorFactory(driver)) {
+            @Override
+            protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+                InvocationHandler located = new LocatingElementHandler(locator);
+                return (WebElement) Proxy.newProxyInstance(loader,
+                        new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                        (proxy, method, args) -> method.getName().equals("toString") && method.getParameterCount() == 0
+                                ? "Proxy element for: " + locator : located.invoke(proxy, method, args));
+            }
+        }, page);
+    }
+
+    // Proxies from initElements print "Proxy element for: DefaultElementLocator 'By.id: x'", found elements "[... -> id: x]"
+    static String describeLocator(WebElement element) {
+        if (element == null) {
+            return "-";
+        }
+        String text = element.toString();
+        int quote = text.indexOf('\'');
+        if (quote >= 0 && text.lastIndexOf('\'') > quote) {
+            return text.substring(quote + 1, text.lastIndexOf('\''));
+        }
+        int arrow = text.lastIndexOf("-> ");
+        if (arrow >= 0) {
+            return "By." + text.substring(arrow + 3, text.endsWith("]") ? text.length() - 1 : text.length());
+        }
+        return text;
+    }
+
+    public static Map<String, Stats> getPerLocator() {
+        return new TreeMap<>(PER_LOCATOR);
+    }
+
+    public static Map<String, Stats> getPerPageMethod() {
+        return new TreeMap<>(PER_PAGE_METHOD);
+    }
+
+    public static Map<String, Stats> getPerTest() {
+        return new TreeMap<>(PER_TEST);
+    }
+
+    // Browser launches by "<browser> <launch profile>", recorded by DriverFactory and SharedBrowser even with metrics off
+    public static void recordStartup(String launch, long elapsedNanos) {
+        stats(PER_STARTUP, launch).record(elapsedNanos, 0);
+    }
+
+    public static Map<String, Stats> getPerStartup() {
+        return new TreeMap<>(PER_STARTUP);
+    }
+
+    // "<page method> <latency>|<round trips>" per page-object method since the last call, for ShardWorker to report
+    static List<String> drainPerPageMethod() {
+        List<String> lines = new ArrayList<>();
+        for (String pageMethod : new TreeSet<>(PER_PAGE_METHOD.keySet())) {
+            Stats stats = PER_PAGE_METHOD.remove(pageMethod);
+            if (stats != null) {
+                lines.add(pageMethod + " " + stats.latencyNanos.encode() + "|" + stats.roundTrips.encode());
+            }
+        }
+        return lines;
+    }
+
+    // Called by ShardScheduler for each line a worker reported, so the scheduler's finishRun sees every worker's page methods
+    static void mergePerPageMethod(String line) {
+        int space = line.indexOf(' ');
+        int bar = line.indexOf('|');
+        Stats stats = stats(PER_PAGE_METHOD, line.substring(0, space));
+        stats.latencyNanos.addEncoded(line.substring(space + 1, bar));
+        stats.roundTrips.addEncoded(line.substring(bar + 1));
+    }
+
+    public static void reset() {
+        PER_LOCATOR.clear();
+        PER_PAGE_METHOD.clear();
+        PER_TEST.clear();
+        PER_STARTUP.clear();
+    }
+
+    // Slowest first by p99, so the top rows are the locators and page methods worth looking at
+    public static void writeReport(Path csvFile) {
+        try {
+            Files.createDirectories(csvFile.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+                writer.write("scope,key,count,roundTrips,meanMicros,p50Micros,p95Micros,p99Micros,maxMicros");
+                writer.newLine();
+                writeRows(writer, "locator", PER_LOCATOR);
+                writeRows(writer, "pageMethod", PER_PAGE_METHOD);
+                writeRows(writer, "test", PER_TEST);
+                writeRows(writer, "startup", PER_STARTUP);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeRows(BufferedWriter writer, String scope, Map<String, Stats> map) throws IOException {
+        List<Map.Entry<String, Stats>> rows = new ArrayList<>(map.entrySet());
+        rows.sort((a, b) -> Long.compare(b.getValue().latencyNanos.getValueAtPercentile(99),
+                a.getValue().latencyNanos.getValueAtPercentile(99)));
+        for (Map.Entry<String, Stats> row : rows) {
+            LatencyHistogram latency = row.getValue().latencyNanos;
+            writer.write(scope + ",\"" + row.getKey().replace("\"", "\"\"") + "\"," + latency.getCount() + ","
+                    + row.getValue().roundTrips.getSum() + "," + (long) (latency.getMean() / 1000) + ","
+                    + latency.getValueAtPercentile(50) / 1000 + "," + latency.getValueAtPercentile(95) / 1000 + ","
+                    + latency.getValueAtPercentile(99) / 1000 + "," + latency.getMax() / 1000);
+            writer.newLine();
+        }
+    }
+
+    // Prometheus text exposition format: a summary per locator, per page-object method and per browser launch profile,
+    // plus round-trip counters
+    public static String toPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        appendSummary(text, "tn_interaction_seconds", "ElementUtilities call latency by operation and locator", PER_LOCATOR, "interaction");
+        appendSummary(text, "tn_page_method_seconds", "Page-object method latency", PER_PAGE_METHOD, "method");
+        appendSummary(text, "tn_browser_startup_seconds", "Browser startup time by browser and launch profile", PER_STARTUP, "launch");
+        text.append("# HELP tn_webdriver_round_trips_total WebDriver commands issued\n");
+        text.append("# TYPE tn_webdriver_round_trips_total counter\n");
+        for (Map.Entry<String, Stats> row : new TreeMap<>(PER_PAGE_METHOD).entrySet()) {
+            text.append("tn_webdriver_round_trips_total{method=\"").append(escapeLabel(row.getKey())).append("\"} ")
+                    .append(row.getValue().roundTrips.getSum()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void appendSummary(StringBuilder text, String name, String help, Map<String, Stats> map, String label) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(" summary\n");
+        for (Map.Entry<String, Stats> row : new TreeMap<>(map).entrySet()) {
+            LatencyHistogram latency = row.getValue().latencyNanos;
+            String labels = label + "=\"" + escapeLabel(row.getKey()) + "\"";
+            for (double quantile : new double[]{0.5, 0.95, 0.99}) {
+                text.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(latency.getValueAtPercentile(quantile * 100) / 1e9).append('\n');
+            }
+            text.append(name).append("_sum{").append(labels).append("} ").append(latency.getSum() / 1e9).append('\n');
+            text.append(name).append("_count{").append(labels).append("} ").append(latency.getCount()).append('\n');
+        }
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public static void writePrometheusText(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
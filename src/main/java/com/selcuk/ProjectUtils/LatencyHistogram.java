@@ -0,0 +1,117 @@
+package com.selcuk.ProjectUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear histogram in the style of HdrHistogram: 16 linear sub-buckets per power of two (about 6% precision).
+// Recording is a couple of atomic increments, so many threads can record into the same instance without locking.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        raiseMax(value);
+    }
+
+    private void raiseMax(long value) {
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+            // another thread raised the max first; re-read and retry
+        }
+    }
+
+    // "<count> <sum> <max> <bucket>:<count>,..." without the empty buckets, for handing a histogram to another JVM
+    String encode() {
+        StringBuilder encoded = new StringBuilder();
+        encoded.append(count.get()).append(' ').append(sum.get()).append(' ').append(max.get()).append(' ');
+        String separator = "";
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = buckets.get(i);
+            if (bucketCount > 0) {
+                encoded.append(separator).append(i).append(':').append(bucketCount);
+                separator = ",";
+            }
+        }
+        return encoded.toString();
+    }
+
+    // Adds a histogram written by encode() to this one
+    void addEncoded(String encoded) {
+        String[] parts = encoded.split(" ", 4);
+        count.addAndGet(Long.parseLong(parts[0]));
+        sum.addAndGet(Long.parseLong(parts[1]));
+        raiseMax(Long.parseLong(parts[2]));
+        if (parts.length > 3 && !parts[3].isEmpty()) {
+            for (String bucket : parts[3].split(",")) {
+                int colon = bucket.indexOf(':');
+                buckets.addAndGet(Integer.parseInt(bucket.substring(0, colon)), Long.parseLong(bucket.substring(colon + 1)));
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    // Upper edge of the bucket holding the requested percentile, capped at the largest value seen
+    public long getValueAtPercentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (subBucket - HALF_SUB_BUCKETS);
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
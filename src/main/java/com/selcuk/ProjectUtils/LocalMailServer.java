@@ -0,0 +1,418 @@
+package com.selcuk.ProjectUtils;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// In-process stand-in for the mail provider: SMTP to receive what the application sends and POP3 to read it back.
+// Tests wait on waitForMessage, which is woken as soon as a message is delivered instead of polling an inbox.
+public class LocalMailServer implements AutoCloseable {
+    private final Session session = Session.getInstance(new Properties());
+    private final List<StoredMessage> mailbox = new ArrayList<>();
+    // Sequence number of the last delivery; unlike the mailbox size it never goes down on clear() or POP3 deletes
+    private long deliveries;
+    private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "local-mail-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ServerSocket smtpSocket;
+    private ServerSocket pop3Socket;
+
+    public LocalMailServer start(int smtpPort, int pop3Port) {
+        try {
+            InetAddress loopback = InetAddress.getLoopbackAddress();
+            smtpSocket = new ServerSocket(smtpPort, 50, loopback);
+            pop3Socket = new ServerSocket(pop3Port, 50, loopback);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the local mail server", e);
+        }
+        workers.submit(() -> acceptLoop(smtpSocket, true));
+        workers.submit(() -> acceptLoop(pop3Socket, false));
+        return this;
+    }
+
+    public LocalMailServer start() {
+        return start(0, 0);
+    }
+
+    public int getSmtpPort() {
+        return smtpSocket.getLocalPort();
+    }
+
+    public int getPop3Port() {
+        return pop3Socket.getLocalPort();
+    }
+
+    // Properties for a javax.mail Session that sends through this server
+    public Properties getSmtpSessionProperties() {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "127.0.0.1");
+        props.put("mail.smtp.port", String.valueOf(getSmtpPort()));
+        return props;
+    }
+
+    // Properties for a javax.mail Session that reads from this server with the "pop3" store
+    public Properties getPop3SessionProperties() {
+        Properties props = new Properties();
+        props.put("mail.store.protocol", "pop3");
+        props.put("mail.pop3.host", "127.0.0.1");
+        props.put("mail.pop3.port", String.valueOf(getPop3Port()));
+        return props;
+    }
+
+    public void deliver(String recipient, byte[] rawMessage) {
+        try {
+            MimeMessage message = new MimeMessage(session, new ByteArrayInputStream(rawMessage));
+            synchronized (mailbox) {
+                mailbox.add(new StoredMessage(++deliveries, recipient.toLowerCase(Locale.ROOT), rawMessage, message));
+                mailbox.notifyAll();
+            }
+        } catch (MessagingException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public Message waitForMessage(String recipient, Predicate<Message> condition, long timeoutMillis) {
+        String wanted = recipient.toLowerCase(Locale.ROOT);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long seen = 0;
+        while (true) {
+            // Only messages delivered since the last wake-up are inspected
+            List<StoredMessage> candidates = new ArrayList<>();
+            synchronized (mailbox) {
+                while (deliveries == seen) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(mailbox, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                }
+                for (StoredMessage stored : mailbox) {
+                    if (stored.sequence > seen && stored.recipient.equals(wanted)) {
+                        candidates.add(stored);
+                    }
+                }
+                seen = deliveries;
+            }
+            // The condition usually parses MIME content, so it runs without holding up deliveries
+            for (StoredMessage stored : candidates) {
+                if (condition.test(stored.message)) {
+                    return stored.message;
+                }
+            }
+        }
+    }
+
+    public Message waitForMessageContaining(String recipient, String text, long timeoutMillis) {
+        return waitForMessage(recipient, message -> {
+            try {
+                return CommonUtils.getTextFromMessage(message).contains(text);
+            } catch (Exception e) {
+                return false;
+            }
+        }, timeoutMillis);
+    }
+
+    public List<Message> getMessages(String recipient) {
+        String wanted = recipient.toLowerCase(Locale.ROOT);
+        List<Message> messages = new ArrayList<>();
+        synchronized (mailbox) {
+            for (StoredMessage stored : mailbox) {
+                if (stored.recipient.equals(wanted)) {
+                    messages.add(stored.message);
+                }
+            }
+        }
+        return messages;
+    }
+
+    public void clear() {
+        synchronized (mailbox) {
+            mailbox.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (smtpSocket != null) {
+                smtpSocket.close();
+            }
+            if (pop3Socket != null) {
+                pop3Socket.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        workers.shutdownNow();
+    }
+
+    private void acceptLoop(ServerSocket serverSocket, boolean smtp) {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                workers.submit(() -> {
+                    try (Socket socket = client) {
+                        if (smtp) {
+                            handleSmtp(socket);
+                        } else {
+                            handlePop3(socket);
+                        }
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                });
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void handleSmtp(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+        List<String> recipients = new ArrayList<>();
+        reply(out, "220 localhost ESMTP LocalMailServer");
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.toUpperCase(Locale.ROOT);
+            if (command.startsWith("EHLO")) {
+                reply(out, "250-localhost");
+                reply(out, "250 8BITMIME");
+            } else if (command.startsWith("HELO")) {
+                reply(out, "250 localhost");
+            } else if (command.startsWith("MAIL FROM")) {
+                recipients.clear();
+                reply(out, "250 OK");
+            } else if (command.startsWith("RCPT TO")) {
+                recipients.add(extractAddress(line));
+                reply(out, "250 OK");
+            } else if (command.equals("DATA")) {
+                reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                byte[] raw = readData(in);
+                for (String recipient : recipients) {
+                    deliver(recipient, raw);
+                }
+                recipients.clear();
+                reply(out, "250 OK");
+            } else if (command.equals("RSET")) {
+                recipients.clear();
+                reply(out, "250 OK");
+            } else if (command.equals("NOOP")) {
+                reply(out, "250 OK");
+            } else if (command.equals("QUIT")) {
+                reply(out, "221 Bye");
+                return;
+            } else {
+                reply(out, "502 Command not implemented");
+            }
+        }
+    }
+
+    private byte[] readData(BufferedReader in) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            if (line.startsWith("..")) {
+                line = line.substring(1);
+            }
+            data.write(line.getBytes(StandardCharsets.UTF_8));
+            data.write('\r');
+            data.write('\n');
+        }
+        return data.toByteArray();
+    }
+
+    // POP3 mailbox is selected by USER; any password is accepted
+    private void handlePop3(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        OutputStream rawOut = socket.getOutputStream();
+        PrintWriter out = new PrintWriter(rawOut, true);
+        List<StoredMessage> messages = new ArrayList<>();
+        List<StoredMessage> deleted = new ArrayList<>();
+        reply(out, "+OK LocalMailServer POP3 ready");
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] parts = line.split(" ");
+            String command = parts[0].toUpperCase(Locale.ROOT);
+            if (command.equals("USER")) {
+                String user = parts.length > 1 ? parts[1].toLowerCase(Locale.ROOT) : "";
+                messages.clear();
+                synchronized (mailbox) {
+                    for (StoredMessage stored : mailbox) {
+                        if (stored.recipient.equals(user)) {
+                            messages.add(stored);
+                        }
+                    }
+                }
+                reply(out, "+OK");
+            } else if (command.equals("PASS") || command.equals("NOOP") || command.equals("RSET")) {
+                if (command.equals("RSET")) {
+                    deleted.clear();
+                }
+                reply(out, "+OK");
+            } else if (command.equals("CAPA")) {
+                reply(out, "+OK");
+                reply(out, "USER");
+                reply(out, "UIDL");
+                reply(out, ".");
+            } else if (command.equals("STAT")) {
+                long size = 0;
+                for (StoredMessage stored : messages) {
+                    size += stored.raw.length;
+                }
+                reply(out, "+OK " + messages.size() + " " + size);
+            } else if (command.equals("LIST") || command.equals("UIDL")) {
+                boolean uidl = command.equals("UIDL");
+                if (parts.length > 1) {
+                    StoredMessage stored = select(messages, parts[1]);
+                    if (stored == null) {
+                        reply(out, "-ERR No such message");
+                    } else {
+                        reply(out, "+OK " + parts[1] + " " + (uidl ? stored.uid() : String.valueOf(stored.raw.length)));
+                    }
+                } else {
+                    reply(out, "+OK");
+                    for (int i = 0; i < messages.size(); i++) {
+                        StoredMessage stored = messages.get(i);
+                        reply(out, (i + 1) + " " + (uidl ? stored.uid() : String.valueOf(stored.raw.length)));
+                    }
+                    reply(out, ".");
+                }
+            } else if (command.equals("RETR")) {
+                StoredMessage stored = parts.length > 1 ? select(messages, parts[1]) : null;
+                if (stored == null) {
+                    reply(out, "-ERR No such message");
+                } else {
+                    reply(out, "+OK " + stored.raw.length + " octets");
+                    writeDotStuffed(rawOut, stored.raw, Integer.MAX_VALUE);
+                    reply(out, ".");
+                }
+            } else if (command.equals("TOP")) {
+                // TOP <message> <lines>: the headers, the blank line and the first <lines> lines of the body
+                StoredMessage stored = parts.length > 2 ? select(messages, parts[1]) : null;
+                int bodyLines = parts.length > 2 ? parseCount(parts[2]) : -1;
+                if (stored == null || bodyLines < 0) {
+                    reply(out, "-ERR No such message or bad line count");
+                } else {
+                    reply(out, "+OK");
+                    writeDotStuffed(rawOut, stored.raw, bodyLines);
+                    reply(out, ".");
+                }
+            } else if (command.equals("DELE")) {
+                StoredMessage stored = parts.length > 1 ? select(messages, parts[1]) : null;
+                if (stored == null) {
+                    reply(out, "-ERR No such message");
+                } else {
+                    deleted.add(stored);
+                    reply(out, "+OK");
+                }
+            } else if (command.equals("QUIT")) {
+                synchronized (mailbox) {
+                    mailbox.removeAll(deleted);
+                }
+                reply(out, "+OK Bye");
+                return;
+            } else {
+                reply(out, "-ERR Command not implemented");
+            }
+        }
+    }
+
+    // 1-based message number of the session's listing; null when it is malformed or out of range
+    private static StoredMessage select(List<StoredMessage> messages, String number) {
+        int index = parseCount(number);
+        return index >= 1 && index <= messages.size() ? messages.get(index - 1) : null;
+    }
+
+    private static int parseCount(String number) {
+        try {
+            return Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void writeDotStuffed(OutputStream out, byte[] raw, int bodyLines) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(raw), StandardCharsets.UTF_8));
+        boolean inBody = false;
+        int written = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (inBody) {
+                if (written == bodyLines) {
+                    break;
+                }
+                written++;
+            } else if (line.isEmpty()) {
+                inBody = true;
+            }
+            if (line.startsWith(".")) {
+                line = "." + line;
+            }
+            out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+
+    private static String extractAddress(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>');
+        if (start >= 0 && end > start) {
+            return line.substring(start + 1, end).trim().toLowerCase(Locale.ROOT);
+        }
+        return line.substring(line.indexOf(':') + 1).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class StoredMessage {
+        final long sequence;
+        final String recipient;
+        final byte[] raw;
+        final MimeMessage message;
+
+        StoredMessage(long sequence, String recipient, byte[] raw, MimeMessage message) {
+            this.sequence = sequence;
+            this.recipient = recipient;
+            this.raw = raw;
+            this.message = message;
+        }
+
+        String uid() {
+            return Long.toString(sequence);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.selcuk.ProjectUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.BindException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+// In-process copy of the TutorialsNinja demo pages the page objects use, with the same ids, classes and messages.
+// Turned on with useLocalStorefront=true, which makes PropertyUtils point every demo URL at this server; DriverFactory
+// and SessionBootstrapper start it on first use through startIfEnabled.
+public class LocalStorefrontServer implements AutoCloseable {
+    public static final String LIVE_BASE_URL = "https://tutorialsninja.com/demo/";
+    private static final String SESSION_COOKIE = "OCSESSID";
+
+    private static boolean sharedStarted;
+
+    private final Map<String, String> accounts = new ConcurrentHashMap<>();
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final Map<String, List<String[]>> categories = new HashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+    private String baseURL;
+
+    public LocalStorefrontServer() {
+        categories.put("20", products("Apple Cinema 30\"", "110.00", "Canon EOS 5D", "98.00", "HP LP3065", "122.00",
+                "HTC Touch HD", "122.00", "iPhone", "123.20", "iPod Classic", "122.00", "MacBook", "602.00",
+                "MacBook Air", "1202.00", "Palm Treo Pro", "337.99", "Samsung SyncMaster 941BW", "242.00",
+                "Sony VAIO", "1202.00"));
+        categories.put("18", products("HP LP3065", "122.00", "MacBook", "602.00", "MacBook Air", "1202.00",
+                "MacBook Pro", "2000.00", "Sony VAIO", "1202.00"));
+        categories.put("20_27", products("iMac", "122.00"));
+        categories.put("25_28", products("Apple Cinema 30\"", "110.00", "Samsung SyncMaster 941BW", "242.00"));
+        String password = PropertyUtils.getProperty("validPassword", "12345");
+        for (String key : new String[]{"existingEmail", "existingEmailTwo", "existingEmailThree"}) {
+            String email = PropertyUtils.getProperty(key);
+            if (email != null) {
+                accounts.put(email.toLowerCase(), password);
+            }
+        }
+    }
+
+    public LocalStorefrontServer start(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the local storefront on port " + port, e);
+        }
+        executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "local-storefront");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/demo/", this::handle);
+        server.start();
+        baseURL = "http://127.0.0.1:" + server.getAddress().getPort() + "/demo/";
+        return this;
+    }
+
+    public static LocalStorefrontServer startFromProperties() {
+        return new LocalStorefrontServer().start(PropertyUtils.getIntProperty("localStorefrontPort", 8089));
+    }
+
+    // Starts one server for the rest of the JVM when useLocalStorefront=true. The server's dispatcher thread takes its
+    // daemon flag from the thread that starts it, so a daemon thread starts it and it never keeps the JVM alive.
+    // When the port is taken, another JVM of the same run (a ShardScheduler worker) is already serving it.
+    public static synchronized void startIfEnabled() {
+        if (sharedStarted || !PropertyUtils.getBooleanProperty("useLocalStorefront", false)) {
+            return;
+        }
+        FutureTask<LocalStorefrontServer> start = new FutureTask<>(LocalStorefrontServer::startFromProperties);
+        Thread starter = new Thread(start, "local-storefront-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            LocalStorefrontServer server = start.get();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        } catch (ExecutionException e) {
+            if (!(e.getCause().getCause() instanceof BindException)) {
+                throw new IllegalStateException("Could not start the local storefront", e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting the local storefront", e);
+        }
+        sharedStarted = true;
+    }
+
+    public String getBaseURL() {
+        return baseURL;
+    }
+
+    public void addAccount(String email, String password) {
+        accounts.put(email.toLowerCase(), password);
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            Map<String, String> form = "POST".equalsIgnoreCase(exchange.getRequestMethod())
+                    ? parseForm(readBody(exchange.getRequestBody())) : null;
+            String session = sessionOf(exchange);
+            String route = query.getOrDefault("route", "common/home");
+
+            switch (route) {
+                case "account/register":
+                    handleRegister(exchange, session, form);
+                    break;
+                case "account/login":
+                    handleLogin(exchange, session, form);
+                    break;
+                case "account/logout":
+                    if (session != null) {
+                        sessions.remove(session);
+                    }
+                    respond(exchange, page("Account Logout", breadcrumb("Account", "account/account", "Logout", "account/logout"),
+                            "", "<h1>Account Logout</h1><p>You have been logged off your account.</p>"));
+                    break;
+                case "account/success":
+                    respond(exchange, page("Your Account Has Been Created!", breadcrumb("Account", "account/account", "Success", "account/success"),
+                            "", "<h1>Your Account Has Been Created!</h1><p>Congratulations! Your new account has been successfully created!</p>"
+                                    + "<div class=\"buttons\"><div class=\"pull-right\"><a href=\"" + url("account/account") + "\" class=\"btn btn-primary\">Continue</a></div></div>"));
+                    break;
+                case "account/account":
+                    if (session == null || !sessions.containsKey(session)) {
+                        redirect(exchange, url("account/login"));
+                    } else {
+                        respond(exchange, page("My Account", breadcrumb("Account", "account/account"), "",
+                                "<h2>My Account</h2><ul class=\"list-unstyled\"><li><a href=\"" + url("account/edit") + "\">Edit your account information</a></li></ul>"));
+                    }
+                    break;
+                case "product/category":
+                    handleCategory(exchange, query);
+                    break;
+                default:
+                    String title = route.substring(route.lastIndexOf('/') + 1);
+                    respond(exchange, page(title, breadcrumb(title, route), "", "<h1>" + escape(title) + "</h1>"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleRegister(HttpExchange exchange, String session, Map<String, String> form) throws IOException {
+        Map<String, String> warnings = new HashMap<>();
+        String alert = "";
+        if (form != null) {
+            String email = form.getOrDefault("email", "").trim();
+            String password = form.getOrDefault("password", "");
+            if (!lengthBetween(form.get("firstname"), 1, 32)) {
+                warnings.put("firstname", "First Name must be between 1 and 32 characters!");
+            }
+            if (!lengthBetween(form.get("lastname"), 1, 32)) {
+                warnings.put("lastname", "Last Name must be between 1 and 32 characters!");
+            }
+            if (!email.matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) {
+                warnings.put("email", "E-Mail Address does not appear to be valid!");
+            } else if (accounts.containsKey(email.toLowerCase())) {
+                alert = "Warning: E-Mail Address is already registered!";
+            }
+            if (!lengthBetween(form.get("telephone"), 3, 32)) {
+                warnings.put("telephone", "Telephone must be between 3 and 32 characters!");
+            }
+            if (!lengthBetween(password, 4, 20)) {
+                warnings.put("password", "Password must be between 4 and 20 characters!");
+            }
+            if (!password.equals(form.getOrDefault("confirm", ""))) {
+                warnings.put("confirm", "Password confirmation does not match password!");
+            }
+            if (!"1".equals(form.get("agree"))) {
+                alert = "Warning: You must agree to the Privacy Policy!";
+            }
+            if (warnings.isEmpty() && alert.isEmpty()) {
+                accounts.put(email.toLowerCase(), password);
+                redirect(exchange, url("account/success"), login(session, email));
+                return;
+            }
+        }
+        Map<String, String> values = form == null ? new HashMap<>() : form;
+        StringBuilder content = new StringBuilder("<h1>Register Account</h1><p>If you already have an account with us, please login at the <a href=\"")
+                .append(url("account/login")).append("\">login page</a>.</p><form action=\"").append(url("account/register"))
+                .append("\" method=\"post\" class=\"form-horizontal\"><fieldset id=\"account\"><legend>Your Personal Details</legend>");
+        content.append(field("firstname", "First Name", "text", values, warnings));
+        content.append(field("lastname", "Last Name", "text", values, warnings));
+        content.append(field("email", "E-Mail", "email", values, warnings));
+        content.append(field("telephone", "Telephone", "tel", values, warnings));
+        content.append("</fieldset><fieldset><legend>Your Password</legend>");
+        content.append(field("password", "Password", "password", values, warnings));
+        content.append(field("confirm", "Password Confirm", "password", values, warnings));
+        boolean newsletter = "1".equals(values.get("newsletter"));
+        content.append("</fieldset><fieldset><legend>Newsletter</legend><div class=\"form-group\"><label class=\"col-sm-2 control-label\">Subscribe</label><div class=\"col-sm-10\">")
+                .append("<label class=\"radio-inline\"><input type=\"radio\" name=\"newsletter\" value=\"1\"").append(newsletter ? " checked=\"checked\"" : "").append(" /> Yes</label>")
+                .append("<label class=\"radio-inline\"><input type=\"radio\" name=\"newsletter\" value=\"0\"").append(newsletter ? "" : " checked=\"checked\"").append(" /> No</label>")
+                .append("</div></div></fieldset><div class=\"buttons\"><div class=\"pull-right\">I have read and agree to the <a href=\"")
+                .append(url("information/information&information_id=3")).append("\" class=\"agree\"><b>Privacy Policy</b></a> <input type=\"checkbox\" name=\"agree\" value=\"1\" />")
+                .append(" &nbsp;<input type=\"submit\" value=\"Continue\" class=\"btn btn-primary\" /></div></div></form>");
+        respond(exchange, page("Register Account", breadcrumb("Account", "account/account", "Register", "account/register"), alert, content.toString()));
+    }
+
+    private void handleLogin(HttpExchange exchange, String session, Map<String, String> form) throws IOException {
+        String alert = "";
+        if (form != null) {
+            String email = form.getOrDefault("email", "").trim().toLowerCase();
+            String password = accounts.get(email);
+            if (password != null && password.equals(form.get("password"))) {
+                redirect(exchange, url("account/account"), login(session, email));
+                return;
+            }
+            alert = "Warning: No match for E-Mail Address and/or Password.";
+        }
+        String content = "<div class=\"row\"><div class=\"col-sm-6\"><div class=\"well\"><h2>New Customer</h2><a href=\"" + url("account/register")
+                + "\" class=\"btn btn-primary\">Continue</a></div></div><div class=\"col-sm-6\"><div class=\"well\"><h2>Returning Customer</h2>"
+                + "<form action=\"" + url("account/login") + "\" method=\"post\">"
+                + "<div class=\"form-group\"><label class=\"control-label\" for=\"input-email\">E-Mail Address</label>"
+                + "<input type=\"text\" name=\"email\" value=\"\" placeholder=\"E-Mail Address\" id=\"input-email\" class=\"form-control\" /></div>"
+                + "<div class=\"form-group\"><label class=\"control-label\" for=\"input-password\">Password</label>"
+                + "<input type=\"password\" name=\"password\" value=\"\" placeholder=\"Password\" id=\"input-password\" class=\"form-control\" />"
+                + "<a href=\"" + url("account/forgotten") + "\">Forgotten Password</a></div>"
+                + "<input type=\"submit\" value=\"Login\" class=\"btn btn-primary\" /></form></div></div></div>";
+        respond(exchange, page("Account Login", breadcrumb("Account", "account/account", "Login", "account/login"), alert, content));
+    }
+
+    private void handleCategory(HttpExchange exchange, Map<String, String> query) throws IOException {
+        List<String[]> products = new ArrayList<>(categories.getOrDefault(query.getOrDefault("path", ""), new ArrayList<>()));
+        String sort = query.getOrDefault("sort", "p.sort_order");
+        boolean descending = "DESC".equalsIgnoreCase(query.get("order"));
+        Comparator<String[]> comparator = null;
+        if (sort.equals("pd.name")) {
+            comparator = Comparator.comparing(product -> product[0]);
+        } else if (sort.equals("p.price")) {
+            comparator = Comparator.comparingDouble(product -> Double.parseDouble(product[1]));
+        }
+        if (comparator != null) {
+            products.sort(descending ? comparator.reversed() : comparator);
+        }
+        int limit = positiveNumber(query.getOrDefault("limit", "15"));
+        int pageNumber = positiveNumber(query.getOrDefault("page", "1"));
+        if (limit < 1 || pageNumber < 1) {
+            respond(exchange, 400, "<h1>Bad Request</h1><p>limit and page must be positive numbers</p>");
+            return;
+        }
+        int from = Math.min(products.size(), (pageNumber - 1) * limit);
+        int to = Math.min(products.size(), from + limit);
+        StringBuilder content = new StringBuilder("<h2>Category</h2><div class=\"row\">");
+        for (String[] product : products.subList(from, to)) {
+            content.append("<div class=\"product-layout product-grid col-lg-4\"><div class=\"product-thumb\"><div class=\"caption\"><h4><a href=\"")
+                    .append(url("product/product")).append("\">").append(escape(product[0])).append("</a></h4><p class=\"price\">$")
+                    .append(product[1]).append("</p></div></div></div>");
+        }
+        content.append("</div><div class=\"row\"><div class=\"col-sm-6 text-right\">Showing ").append(products.isEmpty() ? 0 : from + 1)
+                .append(" to ").append(to).append(" of ").append(products.size()).append("</div></div>");
+        respond(exchange, page("Category", breadcrumb("Category", "product/category"), "", content.toString()));
+    }
+
+    private static String field(String name, String label, String type, Map<String, String> values, Map<String, String> warnings) {
+        String value = "password".equals(type) ? "" : escape(values.getOrDefault(name, ""));
+        String warning = warnings.containsKey(name) ? "<div class=\"text-danger\">" + warnings.get(name) + "</div>" : "";
+        return "<div class=\"form-group required\"><label class=\"col-sm-2 control-label\" for=\"input-" + name + "\">" + label
+                + "</label><div class=\"col-sm-10\"><input type=\"" + type + "\" name=\"" + name + "\" value=\"" + value
+                + "\" placeholder=\"" + label + "\" id=\"input-" + name + "\" class=\"form-control\" />" + warning + "</div></div>";
+    }
+
+    private String page(String title, String breadcrumb, String alert, String content) {
+        String alertHtml = alert.isEmpty() ? "" : "<div class=\"alert alert-danger alert-dismissible\"><i class=\"fa fa-exclamation-circle\"></i> "
+                + escape(alert) + "</div>";
+        return "<!DOCTYPE html><html><head><meta charset=\"UTF-8\" /><title>" + escape(title) + "</title></head><body>"
+                + "<nav id=\"top\"><div id=\"top-links\"><ul class=\"list-inline\"><li><a href=\"" + url("account/account") + "\" title=\"My Account\">My Account</a></li></ul></div></nav>"
+                + "<div id=\"account-page\" class=\"container\">" + breadcrumb + alertHtml
+                + "<div class=\"row\"><div id=\"content\" class=\"col-sm-9\">" + content + "</div></div></div></body></html>";
+    }
+
+    private String breadcrumb(String... labelsAndRoutes) {
+        StringBuilder html = new StringBuilder("<ul class=\"breadcrumb\"><li><a href=\"").append(url("common/home"))
+                .append("\"><i class=\"fa fa-home\"></i></a></li>");
+        for (int i = 0; i + 1 < labelsAndRoutes.length; i += 2) {
+            html.append("<li><a href=\"").append(url(labelsAndRoutes[i + 1])).append("\">").append(escape(labelsAndRoutes[i])).append("</a></li>");
+        }
+        return html.append("</ul>").toString();
+    }
+
+    private String url(String route) {
+        return baseURL + "index.php?route=" + route;
+    }
+
+    private String login(String session, String email) {
+        String id = session == null ? UUID.randomUUID().toString().replace("-", "") : session;
+        sessions.put(id, email);
+        return id;
+    }
+
+    private static String sessionOf(HttpExchange exchange) {
+        List<String> cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies != null) {
+            for (String header : cookies) {
+                for (String cookie : header.split(";")) {
+                    String[] pair = cookie.trim().split("=", 2);
+                    if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                        return pair[1];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        redirect(exchange, location, null);
+    }
+
+    private static void redirect(HttpExchange exchange, String location, String session) throws IOException {
+        if (session != null) {
+            exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/");
+        }
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void respond(HttpExchange exchange, String html) throws IOException {
+        respond(exchange, 200, html);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            values.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return values;
+    }
+
+    // -1 for anything that is not a number, so the caller can answer 400
+    private static int positiveNumber(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean lengthBetween(String value, int min, int max) {
+        int length = value == null ? 0 : value.trim().length();
+        return length >= min && length <= max;
+    }
+
+    private static List<String[]> products(String... namesAndPrices) {
+        List<String[]> products = new ArrayList<>();
+        for (int i = 0; i + 1 < namesAndPrices.length; i += 2) {
+            products.add(new String[]{namesAndPrices[i], namesAndPrices[i + 1]});
+        }
+        return products;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
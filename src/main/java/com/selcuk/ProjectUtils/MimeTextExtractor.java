@@ -0,0 +1,141 @@
+package com.selcuk.ProjectUtils;
+
+import javax.mail.MessagingException;
+import javax.mail.Multipart;
+import javax.mail.Part;
+import javax.mail.internet.ContentType;
+import javax.mail.internet.MimeUtility;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Walks a message once, decoding each text part a single time straight from its input stream.
+// Parts that are attachments or not text are skipped without being read.
+public class MimeTextExtractor {
+    public static final Pattern PASSWORD_RESET_LINK = Pattern.compile("https?://[^\\s\"'<>]*route=account/reset[^\\s\"'<>]*");
+
+    private final Pattern stopPattern;
+    private final StringBuilder plainText = new StringBuilder();
+    private final StringBuilder htmlText = new StringBuilder();
+    private final StringBuilder allText = new StringBuilder();
+    private String match;
+
+    private MimeTextExtractor(Pattern stopPattern) {
+        this.stopPattern = stopPattern;
+    }
+
+    public static MimeTextExtractor extract(Part part) throws MessagingException, IOException {
+        MimeTextExtractor extractor = new MimeTextExtractor(null);
+        extractor.visit(part);
+        return extractor;
+    }
+
+    // Stops reading the message as soon as the pattern is found; returns group 1 when the pattern has one
+    public static String findFirstMatch(Part part, Pattern pattern) throws MessagingException, IOException {
+        MimeTextExtractor extractor = new MimeTextExtractor(pattern);
+        extractor.visit(part);
+        return extractor.match;
+    }
+
+    public static String findPasswordResetLink(Part part) throws MessagingException, IOException {
+        String link = findFirstMatch(part, PASSWORD_RESET_LINK);
+        return link == null ? null : link.replace("&amp;", "&");
+    }
+
+    public String getPlainText() {
+        return plainText.toString();
+    }
+
+    public String getHtmlText() {
+        return htmlText.toString();
+    }
+
+    // Text and HTML bodies in the order they appear in the message
+    public String getAllText() {
+        return allText.toString();
+    }
+
+    private boolean isDone() {
+        return match != null;
+    }
+
+    private void visit(Part part) throws MessagingException, IOException {
+        if (isDone()) {
+            return;
+        }
+        if (part.isMimeType("multipart/*")) {
+            Object content = part.getContent();
+            if (content instanceof Multipart) {
+                Multipart multipart = (Multipart) content;
+                int count = multipart.getCount();
+                for (int i = 0; i < count && !isDone(); i++) {
+                    visit(multipart.getBodyPart(i));
+                }
+            }
+        } else if (part.isMimeType("message/rfc822")) {
+            Object content = part.getContent();
+            if (content instanceof Part) {
+                visit((Part) content);
+            }
+        } else if (Part.ATTACHMENT.equalsIgnoreCase(part.getDisposition())) {
+            // Attachments are never read, even when they are text
+        } else if (part.isMimeType("text/plain")) {
+            readText(part, plainText);
+        } else if (part.isMimeType("text/html")) {
+            readText(part, htmlText);
+        }
+    }
+
+    private void readText(Part part, StringBuilder target) throws MessagingException, IOException {
+        int partStart = target.length();
+        try (InputStream in = part.getInputStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, charsetOf(part)))) {
+            char[] buffer = new char[8192];
+            int read;
+            int scannedUpTo = partStart;
+            while ((read = reader.read(buffer)) != -1) {
+                target.append(buffer, 0, read);
+                allText.append(buffer, 0, read);
+                if (stopPattern != null) {
+                    // Rescan from the last line break so a match split across two reads is still found
+                    int lastBreak = target.lastIndexOf("\n");
+                    if (lastBreak >= scannedUpTo && findMatch(target, scannedUpTo, lastBreak)) {
+                        return;
+                    }
+                    if (lastBreak >= scannedUpTo) {
+                        scannedUpTo = lastBreak;
+                    }
+                }
+            }
+            if (stopPattern != null) {
+                findMatch(target, scannedUpTo, target.length());
+            }
+        }
+    }
+
+    private boolean findMatch(CharSequence text, int from, int to) {
+        Matcher matcher = stopPattern.matcher(text).region(from, to);
+        if (matcher.find()) {
+            match = matcher.groupCount() > 0 && matcher.group(1) != null ? matcher.group(1) : matcher.group();
+            return true;
+        }
+        return false;
+    }
+
+    private static Charset charsetOf(Part part) {
+        try {
+            String charset = new ContentType(part.getContentType()).getParameter("charset");
+            if (charset != null) {
+                return Charset.forName(MimeUtility.javaCharset(charset));
+            }
+        } catch (Exception e) {
+            // Unknown or malformed charsets fall back to UTF-8 below
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
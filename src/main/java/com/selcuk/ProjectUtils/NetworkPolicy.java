@@ -0,0 +1,180 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-session request blocking through the Chrome DevTools Protocol, plus a per-test record of what each page load cost.
+// Only applies to Chromium drivers (Chrome and Edge); other browsers are left untouched. Nothing is blocked unless
+// blockedResourceTypes or blockedUrlPatterns ask for it.
+public class NetworkPolicy {
+    public static final Path CACHE_DIRECTORY = Paths.get(System.getProperty("user.dir"), "Reports", "chrome-cache");
+
+    public enum ResourceType {
+        FONT("*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot", "*fonts.googleapis.com*", "*fonts.gstatic.com*"),
+        IMAGE("*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.svg", "*.ico"),
+        MEDIA("*.mp4", "*.webm", "*.mp3"),
+        STYLESHEET("*.css"),
+        THIRD_PARTY("*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*facebook.net*");
+
+        private final String[] patterns;
+
+        ResourceType(String... patterns) {
+            this.patterns = patterns;
+        }
+    }
+
+    private static final Map<String, List<PageLoadStats>> STATS_PER_TEST = new ConcurrentHashMap<>();
+    // Numbered in the order threads first start a browser, so a single-threaded worker always uses cache slot 1
+    private static final AtomicLong CACHE_SLOTS = new AtomicLong();
+    private static final ThreadLocal<Long> CACHE_SLOT = ThreadLocal.withInitial(CACHE_SLOTS::incrementAndGet);
+
+    private final List<String> blockedPatterns = new ArrayList<>();
+
+    public NetworkPolicy block(ResourceType type) {
+        Collections.addAll(blockedPatterns, type.patterns);
+        return this;
+    }
+
+    public NetworkPolicy blockUrlPattern(String pattern) {
+        blockedPatterns.add(pattern);
+        return this;
+    }
+
+    public List<String> getBlockedPatterns() {
+        return Collections.unmodifiableList(blockedPatterns);
+    }
+
+    // blockedResourceTypes=FONT,IMAGE and blockedUrlPatterns=*ads*,*tracker* in projectdata.properties
+    public static NetworkPolicy fromProperties() {
+        NetworkPolicy policy = new NetworkPolicy();
+        for (String type : PropertyUtils.getProperty("blockedResourceTypes", "").split(",")) {
+            if (!type.trim().isEmpty()) {
+                policy.block(ResourceType.valueOf(type.trim().toUpperCase()));
+            }
+        }
+        for (String pattern : PropertyUtils.getProperty("blockedUrlPatterns", "").split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                policy.blockUrlPattern(pattern.trim());
+            }
+        }
+        return policy;
+    }
+
+    // Chrome cannot share a disk cache between running processes, so each worker thread gets its own directory,
+    // reused by the sessions it starts one after another. Shard workers have stable ids, so their caches stay warm
+    // across runs; a thread must quit its browser before it starts the next one.
+    public static List<String> getCacheArguments() {
+        String worker = System.getProperty("report.workerId", String.valueOf(ProcessHandle.current().pid()));
+        Path directory = CACHE_DIRECTORY.resolve(worker + "-" + CACHE_SLOT.get());
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--disk-cache-dir=" + directory.toAbsolutePath());
+        arguments.add("--disk-cache-size=" + (256 * 1024 * 1024));
+        return arguments;
+    }
+
+    public boolean apply(WebDriver driver) {
+        if (!(driver instanceof HasCdp)) {
+            return false;
+        }
+        HasCdp cdp = (HasCdp) driver;
+        cdp.executeCdpCommand("Network.enable", new HashMap<>());
+        cdp.executeCdpCommand("Network.setCacheDisabled", Collections.singletonMap("cacheDisabled", false));
+        Map<String, Object> blocked = new HashMap<>();
+        blocked.put("urls", new ArrayList<>(blockedPatterns));
+        cdp.executeCdpCommand("Network.setBlockedURLs", blocked);
+        return true;
+    }
+
+    private static final String PAGE_LOAD_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0] || {};" +
+            "var transferred = nav.transferSize || 0, cached = 0, count = 0;" +
+            "performance.getEntriesByType('resource').forEach(function (r) {" +
+            "  count++; transferred += r.transferSize || 0;" +
+            "  if (r.transferSize === 0 && r.decodedBodySize > 0) { cached += r.decodedBodySize; }" +
+            "});" +
+            "return [Math.round(nav.loadEventEnd || 0), transferred, cached, count];";
+
+    // Reads the current page's cost from the Resource Timing API; a zero transferSize with a body means it came from cache
+    public static PageLoadStats measure(WebDriver driver, String testName) {
+        @SuppressWarnings("unchecked")
+        List<Object> values = (List<Object>) ((JavascriptExecutor) driver).executeScript(PAGE_LOAD_SCRIPT);
+        PageLoadStats stats = new PageLoadStats(driver.getCurrentUrl(), toLong(values.get(0)), toLong(values.get(1)),
+                toLong(values.get(2)), toLong(values.get(3)));
+        STATS_PER_TEST.computeIfAbsent(testName, name -> Collections.synchronizedList(new ArrayList<>())).add(stats);
+        return stats;
+    }
+
+    public static Map<String, List<PageLoadStats>> getStatsPerTest() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(STATS_PER_TEST));
+    }
+
+    // One row per test: page loads, total load time, bytes over the wire and bytes served from the disk cache
+    public static void writeReport(Path csvFile) {
+        try {
+            Files.createDirectories(csvFile.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+                writer.write("test,pageLoads,loadMillis,transferredBytes,cachedBytes,resources");
+                writer.newLine();
+                for (Map.Entry<String, List<PageLoadStats>> test : STATS_PER_TEST.entrySet()) {
+                    long loads = 0, millis = 0, transferred = 0, cached = 0, resources = 0;
+                    synchronized (test.getValue()) {
+                        for (PageLoadStats stats : test.getValue()) {
+                            loads++;
+                            millis += stats.loadMillis;
+                            transferred += stats.transferredBytes;
+                            cached += stats.cachedBytes;
+                            resources += stats.resourceCount;
+                        }
+                    }
+                    writer.write(test.getKey().replace(',', ' ') + "," + loads + "," + millis + "," + transferred + ","
+                            + cached + "," + resources);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    public static class PageLoadStats {
+        public final String url;
+        public final long loadMillis;
+        public final long transferredBytes;
+        public final long cachedBytes;
+        public final long resourceCount;
+
+        PageLoadStats(String url, long loadMillis, long transferredBytes, long cachedBytes, long resourceCount) {
+            this.url = url;
+            this.loadMillis = loadMillis;
+            this.transferredBytes = transferredBytes;
+            this.cachedBytes = cachedBytes;
+            this.resourceCount = resourceCount;
+        }
+
+        @Override
+        public String toString() {
+            return url + " loaded in " + loadMillis + " ms, " + transferredBytes + " bytes transferred, "
+                    + cachedBytes + " bytes from cache";
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.math.BigDecimal;
+import java.text.Collator;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Checks that items arrive in order, one at a time, without holding the list or changing it.
+// Feed it with accept(); it stops agreeing at the first item that sorts before the one preceding it,
+// so callers reading a listing element by element or page by page can stop there too.
+public class OrderVerifier {
+    public static final Comparator<String> NATURAL = Comparator.naturalOrder();
+    public static final Comparator<String> CASE_INSENSITIVE = String.CASE_INSENSITIVE_ORDER;
+    // Listing prices such as "$1,202.00" or "$122.00 Ex Tax: $101.00"; the first amount is the one compared
+    public static final Comparator<String> NUMERIC_PRICE = Comparator.comparing(OrderVerifier::parsePrice);
+
+    private static final Pattern AMOUNT = Pattern.compile("-?\\d[\\d,]*(\\.\\d+)?");
+
+    private final Comparator<String> comparator;
+    private String previous;
+    private long count;
+    private long violationIndex = -1;
+    private String violation;
+
+    public OrderVerifier(Comparator<String> comparator) {
+        this.comparator = comparator;
+    }
+
+    public static OrderVerifier ascending(Comparator<String> comparator) {
+        return new OrderVerifier(comparator);
+    }
+
+    public static OrderVerifier descending(Comparator<String> comparator) {
+        return new OrderVerifier(comparator.reversed());
+    }
+
+    // Collator ordering for the given locale, so accented names sort the way the storefront's language does
+    public static Comparator<String> localeAware(Locale locale) {
+        Collator collator = Collator.getInstance(locale);
+        return collator::compare;
+    }
+
+    public static BigDecimal parsePrice(String text) {
+        Matcher amount = AMOUNT.matcher(text);
+        if (!amount.find()) {
+            throw new IllegalArgumentException("No price found in '" + text + "'");
+        }
+        return new BigDecimal(amount.group().replace(",", ""));
+    }
+
+    // True while everything seen so far is in order; once false it stays false
+    public boolean accept(String item) {
+        if (violationIndex >= 0) {
+            return false;
+        }
+        if (previous != null && comparator.compare(previous, item) > 0) {
+            violationIndex = count;
+            violation = "'" + item + "' at position " + count + " comes after '" + previous + "'";
+            return false;
+        }
+        previous = item;
+        count++;
+        return true;
+    }
+
+    public boolean acceptAll(Iterable<String> items) {
+        for (String item : items) {
+            if (!accept(item)) {
+                return false;
+            }
+        }
+        return isInOrder();
+    }
+
+    // Reads element texts one by one and stops reading at the first item out of order. getElementText gives "" for a
+    // hidden item, which is not part of the visible order, so hidden items are skipped instead of compared
+    public boolean acceptElements(List<WebElement> elements) {
+        for (WebElement element : elements) {
+            String text = ElementUtilities.getElementText(element);
+            if (text.isEmpty() && !ElementUtilities.isElementDisplayed(element)) {
+                continue;
+            }
+            if (!accept(text)) {
+                return false;
+            }
+        }
+        return isInOrder();
+    }
+
+    // Walks a paginated listing: checks the items on the current page, follows the next-page link, and continues
+    // across the page boundary until the last page or the first item out of order
+    public boolean acceptPages(WebDriver driver, By itemLocator, By nextPageLocator, int pageLoadSeconds) {
+        while (true) {
+            List<WebElement> items = driver.findElements(itemLocator);
+            if (!acceptElements(items)) {
+                return false;
+            }
+            List<WebElement> nextPage = driver.findElements(nextPageLocator);
+            if (nextPage.isEmpty()) {
+                return isInOrder();
+            }
+            ElementUtilities.clickOnElement(nextPage.get(0));
+            if (!items.isEmpty()) {
+                new WebDriverWait(driver, Duration.ofSeconds(pageLoadSeconds)).until(ExpectedConditions.stalenessOf(items.get(0)));
+            }
+        }
+    }
+
+    public static boolean isSorted(Iterable<String> items, Comparator<String> comparator) {
+        return new OrderVerifier(comparator).acceptAll(items);
+    }
+
+    public boolean isInOrder() {
+        return violationIndex < 0;
+    }
+
+    public long getCheckedCount() {
+        return count;
+    }
+
+    // Zero-based position of the first item out of order, or -1
+    public long getViolationIndex() {
+        return violationIndex;
+    }
+
+    public String getViolation() {
+        return violation;
+    }
+}
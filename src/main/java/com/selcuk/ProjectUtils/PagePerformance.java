@@ -0,0 +1,257 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Storefront page performance, captured once per loaded document when pagePerformance=true: Navigation Timing,
+// resource totals, FCP, LCP and CLS, all gathered by one async script. Samples are grouped by route, named after the
+// projectdata.properties key whose URL matches the page (registerPageURL, loginPageURL, ...), and each sample is
+// checked against perfBudget.<route>.<metric> budgets; a page over budget fails the test with an AssertionError.
+// Register as a TestNG listener to get Reports/page-performance.csv with percentiles per route and metric.
+public class PagePerformance implements ISuiteListener {
+    public static final boolean ENABLED = PropertyUtils.getBooleanProperty("pagePerformance", false);
+    public static final Path REPORT = Paths.get(System.getProperty("user.dir"), "Reports", "page-performance.csv");
+    public static final String[] METRICS = {"ttfb", "domContentLoaded", "load", "fcp", "lcp", "cls", "resources", "transferKB"};
+    private static final Duration NAVIGATION_TIMEOUT = Duration.ofSeconds(30);
+
+    // CLS is a unitless fraction; it is kept in thousandths so the integer histograms can hold it
+    private static final Map<String, Integer> SCALE = Map.of("cls", 1000);
+
+    // The window marker makes later calls on the same document return at once, so page objects can call this freely.
+    // Buffered entries go to the observer callback, not to takeRecords(), so both are kept before disconnecting
+    private static final String CAPTURE_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "if (window.__pagePerformanceCaptured) { done(null); return; }"
+            + "function observe(type) {"
+            + "  var entries = [];"
+            + "  try {"
+            + "    var observer = new PerformanceObserver(function(list) { entries.push.apply(entries, list.getEntries()); });"
+            + "    observer.observe({type: type, buffered: true});"
+            + "    return {entries: function() {"
+            + "      entries.push.apply(entries, observer.takeRecords()); observer.disconnect(); return entries;"
+            + "    }};"
+            + "  } catch (e) { return null; }"
+            + "}"
+            + "function collect() {"
+            + "  var lcpObserver = observe('largest-contentful-paint'), clsObserver = observe('layout-shift');"
+            + "  setTimeout(function() {"
+            + "    var nav = performance.getEntriesByType('navigation')[0], out = {url: location.href};"
+            + "    if (nav) {"
+            + "      out.ttfb = nav.responseStart; out.domContentLoaded = nav.domContentLoadedEventEnd; out.load = nav.loadEventEnd;"
+            + "    }"
+            + "    var fcp = performance.getEntriesByName('first-contentful-paint')[0];"
+            + "    if (fcp) { out.fcp = fcp.startTime; }"
+            + "    var lcp = lcpObserver ? lcpObserver.entries() : [];"
+            + "    if (lcp.length) { out.lcp = lcp[lcp.length - 1].startTime; }"
+            + "    if (clsObserver) {"
+            + "      var cls = 0;"
+            + "      clsObserver.entries().forEach(function(s) { if (!s.hadRecentInput) { cls += s.value; } });"
+            + "      out.cls = cls;"
+            + "    }"
+            + "    var resources = performance.getEntriesByType('resource'), bytes = 0;"
+            + "    resources.forEach(function(r) { bytes += r.transferSize || 0; });"
+            + "    out.resources = resources.length; out.transferKB = bytes / 1024;"
+            + "    window.__pagePerformanceCaptured = true;"
+            + "    done(out);"
+            + "  }, 50);"
+            + "}"
+            + "if (document.readyState === 'complete') { collect(); }"
+            + "else { window.addEventListener('load', function() { setTimeout(collect, 0); }); }";
+
+    private static final Map<String, Map<String, LatencyHistogram>> ROUTES = new ConcurrentHashMap<>();
+    private static volatile Map<String, String> routeKeys;
+
+    // One round-trip per new document; nothing at all when disabled
+    public static void capture(WebDriver driver) {
+        if (ENABLED) {
+            measure(driver);
+        }
+    }
+
+    // For a click or submit that loads the next page: right after it the old document can still be current, and its
+    // marker would answer for the new page, so capturing waits until the old document has gone stale. When disabled
+    // the navigation runs alone, without the extra commands
+    public static void captureAfter(WebDriver driver, Runnable navigation) {
+        if (ENABLED) {
+            measureAfter(driver, navigation, NAVIGATION_TIMEOUT);
+        } else {
+            navigation.run();
+        }
+    }
+
+    static void measureAfter(WebDriver driver, Runnable navigation, Duration timeout) {
+        WebElement previousDocument = driver.findElement(By.tagName("html"));
+        navigation.run();
+        try {
+            new WebDriverWait(driver, timeout).until(ExpectedConditions.stalenessOf(previousDocument));
+        } catch (TimeoutException e) {
+            // No new document arrived; measuring now would only hit the old page's marker
+            e.printStackTrace();
+            return;
+        }
+        measure(driver);
+    }
+
+    static void measure(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(CAPTURE_SCRIPT);
+        } catch (WebDriverException e) {
+            // Called from page constructors: a page that cannot be measured (script timeout, closed window, a driver
+            // without async scripts) is skipped rather than failing the test before it starts
+            e.printStackTrace();
+            return;
+        }
+        if (!(result instanceof Map)) {
+            return;
+        }
+        Map<?, ?> values = (Map<?, ?>) result;
+        String route = routeOf(String.valueOf(values.get("url")));
+        Map<String, Double> sample = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            if (values.get(metric) instanceof Number) {
+                sample.put(metric, ((Number) values.get(metric)).doubleValue());
+            }
+        }
+        Map<String, LatencyHistogram> histograms = ROUTES.computeIfAbsent(route, r -> new ConcurrentHashMap<>());
+        for (Map.Entry<String, Double> metric : sample.entrySet()) {
+            histograms.computeIfAbsent(metric.getKey(), m -> new LatencyHistogram())
+                    .record(Math.round(metric.getValue() * SCALE.getOrDefault(metric.getKey(), 1)));
+        }
+        checkBudgets(route, sample);
+    }
+
+    static void checkBudgets(String route, Map<String, Double> sample) {
+        StringBuilder exceeded = new StringBuilder();
+        for (Map.Entry<String, Double> metric : sample.entrySet()) {
+            String budget = PropertyUtils.getProperty("perfBudget." + route + "." + metric.getKey());
+            if (budget != null && metric.getValue() > Double.parseDouble(budget.trim())) {
+                exceeded.append(exceeded.length() == 0 ? "" : ", ").append(metric.getKey()).append(' ')
+                        .append(format(metric.getValue())).append(" > ").append(budget.trim());
+            }
+        }
+        if (exceeded.length() > 0) {
+            throw new AssertionError("Page performance budget exceeded on " + route + ": " + exceeded);
+        }
+    }
+
+    // The properties key whose URL has the same query (route and path); then one with the same route; else the route itself
+    static String routeOf(String url) {
+        Map<String, String> keys = routeKeys;
+        if (keys == null) {
+            keys = buildRouteKeys();
+            routeKeys = keys;
+        }
+        String query = queryOf(url);
+        if (keys.containsKey(query)) {
+            return keys.get(query);
+        }
+        String route = routeParameter(query);
+        if (keys.containsKey(route)) {
+            return keys.get(route);
+        }
+        return route.isEmpty() ? "home" : route;
+    }
+
+    private static Map<String, String> buildRouteKeys() {
+        Map<String, String> keys = new HashMap<>();
+        // Sorted, so the same key wins on every run when several point at one page
+        for (Map.Entry<String, String> property : new TreeMap<>(PropertyUtils.getSnapshot()).entrySet()) {
+            String value = property.getValue();
+            if (!value.contains("route=")) {
+                continue;
+            }
+            String query = queryOf(value);
+            keys.putIfAbsent(query, property.getKey());
+            keys.putIfAbsent(routeParameter(query), property.getKey());
+        }
+        return keys;
+    }
+
+    private static String queryOf(String url) {
+        int question = url.indexOf('?');
+        String query = question < 0 ? "" : url.substring(question + 1);
+        int hash = query.indexOf('#');
+        return hash < 0 ? query : query.substring(0, hash);
+    }
+
+    private static String routeParameter(String query) {
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("route=")) {
+                return parameter.substring(6);
+            }
+        }
+        return "";
+    }
+
+    public static Map<String, Map<String, LatencyHistogram>> getRoutes() {
+        return new TreeMap<>(ROUTES);
+    }
+
+    public static void reset() {
+        ROUTES.clear();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (ENABLED) {
+            writeReport(REPORT);
+        }
+    }
+
+    public static void writeReport(Path csvFile) {
+        try {
+            Files.createDirectories(csvFile.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+                writer.write("route,metric,count,p50,p75,p95,max,budget");
+                writer.newLine();
+                for (Map.Entry<String, Map<String, LatencyHistogram>> route : getRoutes().entrySet()) {
+                    for (String metric : METRICS) {
+                        LatencyHistogram histogram = route.getValue().get(metric);
+                        if (histogram == null || histogram.getCount() == 0) {
+                            continue;
+                        }
+                        double scale = SCALE.getOrDefault(metric, 1);
+                        String budget = PropertyUtils.getProperty("perfBudget." + route.getKey() + "." + metric, "");
+                        writer.write(route.getKey() + "," + metric + "," + histogram.getCount()
+                                + "," + format(histogram.getValueAtPercentile(50) / scale)
+                                + "," + format(histogram.getValueAtPercentile(75) / scale)
+                                + "," + format(histogram.getValueAtPercentile(95) / scale)
+                                + "," + format(histogram.getMax() / scale) + "," + budget.trim());
+                        writer.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.3f", value);
+    }
+}
@@ -1,34 +1,259 @@
 package com.selcuk.ProjectUtils;
 
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
+// Configuration is read once into an immutable snapshot. Lookups only read a volatile field.
+// Layers, lowest to highest: projectdata.properties, projectdata-<profile>.properties, TN_<KEY> env vars, system properties.
+// A -D option on the command line adds its key even when no file has it.
+// With useLocalStorefront=true every demo URL is pointed at LocalStorefrontServer.
 public class PropertyUtils {
+    public static final Path PROPERTIES_FILE = Paths.get(System.getProperty("config.file",
+            Paths.get(System.getProperty("user.dir"), "src", "test", "resources", "projectdata.properties").toString()))
+            .toAbsolutePath();
+
+    private static volatile Map<String, String> snapshot;
+    private static Thread watcher;
+
+    // Lookups on the returned copy are still seen by TestImpactIndex
     public static Properties loadPropertiesFile() {
+        Properties prop = new Properties() {
+            @Override
+            public String getProperty(String key) {
+                TestImpactIndex.recordProperty(key);
+                return super.getProperty(key);
+            }
+        };
+        prop.putAll(getSnapshot());
+        return prop;
+    }
 
-        Properties prop = new Properties();
+    public static Map<String, String> getSnapshot() {
+        Map<String, String> current = snapshot;
+        if (current == null) {
+            synchronized (PropertyUtils.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = readLayers();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static String getProperty(String key) {
+        TestImpactIndex.recordProperty(key);
+        return getSnapshot().get(key);
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value == null ? defaultValue : value;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
         try {
-            FileReader fr = new FileReader(
-                    System.getProperty("user.dir") + "\\src\\test\\resources\\projectdata.properties");
-            prop.load(fr);
-        } catch (IOException e) {
-            e.printStackTrace();
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
         }
+    }
 
-        return prop;
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        String value = getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    public static void reload() {
+        Map<String, String> fresh = readLayers();
+        synchronized (PropertyUtils.class) {
+            snapshot = fresh;
+        }
+    }
+
+    private static Map<String, String> readLayers() {
+        Map<String, String> values = new HashMap<>();
+        readFile(PROPERTIES_FILE, values);
+
+        String profile = System.getProperty("profile", System.getenv("TN_PROFILE"));
+        if (profile != null && !profile.isEmpty()) {
+            readFile(PROPERTIES_FILE.resolveSibling("projectdata-" + profile + ".properties"), values);
+        }
+
+        for (Map.Entry<String, String> env : System.getenv().entrySet()) {
+            if (env.getKey().startsWith("TN_") && !env.getKey().equals("TN_PROFILE")) {
+                String envKey = env.getKey().substring(3);
+                // Env names are upper case, so match them to existing keys case-insensitively
+                String key = envKey;
+                for (String existing : values.keySet()) {
+                    if (existing.toUpperCase(Locale.ROOT).equals(envKey)) {
+                        key = existing;
+                        break;
+                    }
+                }
+                values.put(key, env.getValue());
+            }
+        }
+
+        Set<String> overridable = new LinkedHashSet<>(values.keySet());
+        overridable.addAll(commandLineKeys(ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        for (String name : overridable) {
+            String override = System.getProperty(name);
+            if (override != null) {
+                values.put(name, override);
+            }
+        }
+
+        if (Boolean.parseBoolean(values.get("useLocalStorefront"))) {
+            String localBase = "http://127.0.0.1:" + values.getOrDefault("localStorefrontPort", "8089") + "/demo/";
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                if (value.getValue().startsWith(LocalStorefrontServer.LIVE_BASE_URL)) {
+                    value.setValue(localBase + value.getValue().substring(LocalStorefrontServer.LIVE_BASE_URL.length()));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    // Keys of the -Dkey=value options the JVM was started with; JVM-set properties such as java.home are not among them
+    static Set<String> commandLineKeys(List<String> jvmArguments) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String argument : jvmArguments) {
+            if (argument.startsWith("-D") && argument.length() > 2) {
+                int equals = argument.indexOf('=');
+                keys.add(equals < 0 ? argument.substring(2) : argument.substring(2, equals));
+            }
+        }
+        return keys;
+    }
 
+    private static void readFile(Path file, Map<String, String> target) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties prop = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            prop.load(reader);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        for (String name : prop.stringPropertyNames()) {
+            target.put(name, prop.getProperty(name));
+        }
     }
-    public static Properties storePropertiesFile(Properties prop) {
+
+    // Only the base file is written: it is re-read and just the keys the caller changed or removed, compared with
+    // the current snapshot, are applied to it, so profile, TN_ env, -D and local storefront overlays never end up
+    // in the shared file. Written to a temporary file and moved over the original, so parallel readers never see
+    // a partial file.
+    public static synchronized Properties storePropertiesFile(Properties prop) {
         try {
-            FileWriter fw = new FileWriter(
-                    System.getProperty("user.dir") + "\\src\\test\\resources\\projectdata.properties");
-            prop.store(fw,"Updated Properties file");
+            Properties base = applyChanges(PROPERTIES_FILE, getSnapshot(), prop);
+            Path temp = Files.createTempFile(PROPERTIES_FILE.getParent(), "projectdata", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.ISO_8859_1)) {
+                base.store(writer, "Updated Properties file");
+            }
+            Files.move(temp, PROPERTIES_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            reload();
         } catch (IOException e) {
             e.printStackTrace();
         }
 
         return prop;
     }
+
+    static Properties applyChanges(Path baseFile, Map<String, String> snapshot, Properties prop) {
+        Map<String, String> values = new HashMap<>();
+        readFile(baseFile, values);
+        for (String name : prop.stringPropertyNames()) {
+            String value = prop.getProperty(name);
+            if (!value.equals(snapshot.get(name))) {
+                values.put(name, value);
+            }
+        }
+        for (String name : snapshot.keySet()) {
+            if (prop.getProperty(name) == null) {
+                values.remove(name);
+            }
+        }
+        Properties base = new Properties();
+        base.putAll(values);
+        return base;
+    }
+
+    // Reloads the snapshot whenever a properties file in the resources folder changes
+    public static synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        watcher = new Thread(() -> {
+            try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+                PROPERTIES_FILE.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_CREATE);
+                while (!Thread.currentThread().isInterrupted()) {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context().toString().endsWith(".properties")) {
+                            changed = true;
+                        }
+                    }
+                    key.reset();
+                    if (changed) {
+                        reload();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "property-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
 }
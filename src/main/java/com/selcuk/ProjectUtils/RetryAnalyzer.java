@@ -0,0 +1,39 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+// Retries a failed test on a fresh browser session, within retryMaxPerTest per test and retryBudget per run.
+// Failures already classified as REAL by FailureTriage are not retried.
+public class RetryAnalyzer implements IRetryAnalyzer {
+    private static final AtomicInteger BUDGET = new AtomicInteger(PropertyUtils.getIntProperty("retryBudget", 20));
+    private static final int MAX_PER_TEST = PropertyUtils.getIntProperty("retryMaxPerTest", 1);
+
+    // Set by ShardWorker: every worker draws on the one budget ShardScheduler keeps for the whole run
+    static volatile BooleanSupplier budget = () -> BUDGET.getAndDecrement() > 0;
+
+    private int attempts;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (attempts >= MAX_PER_TEST) {
+            return false;
+        }
+        FailureTriage.captureScreenshot(result);
+        String signature = FailureTriage.signatureOf(result);
+        if (FailureTriage.classify(signature) == FailureTriage.Classification.REAL) {
+            return false;
+        }
+        if (!budget.getAsBoolean()) {
+            return false;
+        }
+        attempts++;
+        FailureTriage.retryScheduled(result, signature);
+        // The next getDriver call starts a new session, so state left by the failed attempt cannot leak into the retry
+        DriverFactory.quitDriver();
+        return true;
+    }
+}
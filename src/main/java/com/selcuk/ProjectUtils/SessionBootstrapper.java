@@ -0,0 +1,126 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Logs in or registers with plain HTTP form posts and hands the session cookies to the browser,
+// so a test can open its target page already authenticated instead of walking through the forms.
+public class SessionBootstrapper {
+    private final String appURL;
+    private final String loginPageURL;
+    private final String registerPageURL;
+    private final CookieManager cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient client;
+
+    public SessionBootstrapper(String appURL, String loginPageURL, String registerPageURL) {
+        this.appURL = appURL;
+        this.loginPageURL = loginPageURL;
+        this.registerPageURL = registerPageURL;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookieManager)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static SessionBootstrapper fromProperties() {
+        LocalStorefrontServer.startIfEnabled();
+        return new SessionBootstrapper(PropertyUtils.getProperty("appURL"), PropertyUtils.getProperty("loginPageURL"),
+                PropertyUtils.getProperty("registerPageURL"));
+    }
+
+    public boolean login(String email, String password) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("email", email);
+        form.put("password", password);
+        return postForm(loginPageURL, form, "account/account");
+    }
+
+    public boolean login(TestAccount account) {
+        return login(account.getEmail(), account.getPassword());
+    }
+
+    public boolean register(TestAccount account) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("firstname", account.getFirstName());
+        form.put("lastname", account.getLastName());
+        form.put("email", account.getEmail());
+        form.put("telephone", account.getTelephone());
+        form.put("password", account.getPassword());
+        form.put("confirm", account.getPassword());
+        form.put("newsletter", "0");
+        form.put("agree", "1");
+        return postForm(registerPageURL, form, "account/success");
+    }
+
+    // Can back an AccountPool so pooled accounts are created without a browser
+    public static AccountPool.AccountProvisioner httpProvisioner() {
+        return account -> fromProperties().register(account);
+    }
+
+    // The browser has to be on the application's domain before it accepts that domain's cookies
+    public void injectSessionInto(WebDriver driver, String targetURL) {
+        driver.get(appURL);
+        List<HttpCookie> cookies = cookieManager.getCookieStore().get(URI.create(appURL));
+        for (HttpCookie cookie : cookies) {
+            Date expiry = cookie.getMaxAge() > 0 ? new Date(System.currentTimeMillis() + cookie.getMaxAge() * 1000) : null;
+            String path = cookie.getPath() == null ? "/" : cookie.getPath();
+            driver.manage().addCookie(new Cookie(cookie.getName(), cookie.getValue(), null, path, expiry,
+                    cookie.getSecure(), cookie.isHttpOnly()));
+        }
+        driver.get(targetURL);
+    }
+
+    public List<HttpCookie> getSessionCookies() {
+        return cookieManager.getCookieStore().get(URI.create(appURL));
+    }
+
+    // OpenCart answers a successful form post with a redirect to the page named in successRoute
+    private boolean postForm(String url, Map<String, String> form, String successRoute) {
+        try {
+            // The first GET starts the server-side session the form post is tied to
+            client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.discarding());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(encodeForm(form)))
+                    .build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            String location = response.headers().firstValue("Location").orElse("");
+            return response.statusCode() / 100 == 3 && location.contains(successRoute);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String encodeForm(Map<String, String> form) {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> field : form.entrySet()) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8));
+        }
+        return body.toString();
+    }
+}
@@ -0,0 +1,310 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Splits TestNG methods and their data rows into work items and runs them on forked ShardWorker JVMs.
+// Items are handed out longest-expected-first, and each worker pulls the next item when it finishes,
+// so the run ends close to total work / workers instead of waiting on the slowest fixed shard.
+// Usage: ShardScheduler [--rerun-failed | --impacted <base ref>] <workers> <test class> [<test class> ...]
+// Failed, skipped and unrun items are written to Reports/failed-items.txt; --rerun-failed runs only those instead of
+// the whole suite.
+// --impacted runs only the tests TestImpactIndex maps to changes since the given git ref.
+// retryBudget is enforced here for the whole run: workers ask before each retry, however many of them were started.
+public class ShardScheduler {
+    public static final Path FAILED_ITEMS = Paths.get(System.getProperty("user.dir"), "Reports", "failed-items.txt");
+
+    private final int workerCount;
+    private final DurationHistory history;
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final Map<String, String> results = new ConcurrentHashMap<>();
+    private final AtomicLong totalWorkMillis = new AtomicLong();
+    private final AtomicInteger retryBudget = new AtomicInteger(PropertyUtils.getIntProperty("retryBudget", 20));
+
+    public ShardScheduler(int workerCount, DurationHistory history) {
+        this.workerCount = workerCount;
+        this.history = history;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean rerunFailed = args.length > 0 && args[0].equals("--rerun-failed");
+        String impactedSince = args.length > 1 && args[0].equals("--impacted") ? args[1] : null;
+        int first = rerunFailed ? 1 : impactedSince != null ? 2 : 0;
+        if (args.length - first < 2) {
+            System.out.println("Usage: ShardScheduler [--rerun-failed | --impacted <base ref>] <workers> <test class> [<test class> ...]");
+            return;
+        }
+        List<String> items = new ArrayList<>();
+        for (int i = first + 1; i < args.length; i++) {
+            items.addAll(discoverItems(Class.forName(args[i])));
+        }
+        if (rerunFailed) {
+            items.retainAll(readFailedItems());
+            System.out.println("Rerunning " + items.size() + " failed items");
+        }
+        if (impactedSince != null) {
+            TestImpactIndex index = TestImpactIndex.load(TestImpactIndex.INDEX_FILE);
+            Set<String> selected = index.select(TestImpactIndex.changesSince(impactedSince));
+            int before = items.size();
+            items.removeIf(item -> !index.isImpacted(item.split("#")[0] + "#" + item.split("#")[1], selected));
+            System.out.println("Running " + items.size() + " of " + before + " items impacted since " + impactedSince);
+        }
+        ShardScheduler scheduler = new ShardScheduler(Integer.parseInt(args[first]), new DurationHistory(DurationHistory.DEFAULT_FILE));
+        Map<String, String> results = scheduler.run(items);
+        // A skip usually means a configuration method failed (no browser, no test data), so it is rerun like a failure
+        List<String> failed = new ArrayList<>();
+        for (String item : items) {
+            if (!"PASS".equals(results.get(item))) {
+                failed.add(item);
+            }
+        }
+        writeFailedItems(failed);
+        System.exit(failed.isEmpty() ? 0 : 1);
+    }
+
+    public static List<String> readFailedItems() throws IOException {
+        return Files.exists(FAILED_ITEMS) ? Files.readAllLines(FAILED_ITEMS, StandardCharsets.UTF_8) : new ArrayList<>();
+    }
+
+    private static void writeFailedItems(List<String> failed) throws IOException {
+        Files.createDirectories(FAILED_ITEMS.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(FAILED_ITEMS.toAbsolutePath().getParent(), "failed-items", ".tmp");
+        Files.write(temp, failed, StandardCharsets.UTF_8);
+        Files.move(temp, FAILED_ITEMS, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // One item per @Test method, or one per data row when the method uses a data provider from its own class
+    public static List<String> discoverItems(Class<?> testClass) throws Exception {
+        List<String> items = new ArrayList<>();
+        for (Method method : testClass.getMethods()) {
+            Test test = method.getAnnotation(Test.class);
+            if (test == null || !test.enabled()) {
+                continue;
+            }
+            int rows = test.dataProvider().isEmpty() ? -1 : countRows(testClass, test.dataProvider());
+            if (rows < 0) {
+                items.add(itemId(testClass.getName(), method.getName(), -1));
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    items.add(itemId(testClass.getName(), method.getName(), row));
+                }
+            }
+        }
+        return items;
+    }
+
+    // "class#method", or "class#method#row" for one data row; workers name their report lines and timings the same way
+    static String itemId(String testClass, String method, int row) {
+        return testClass + "#" + method + (row >= 0 ? "#" + row : "");
+    }
+
+    private static int countRows(Class<?> testClass, String dataProviderName) throws Exception {
+        for (Method method : testClass.getDeclaredMethods()) {
+            DataProvider provider = method.getAnnotation(DataProvider.class);
+            if (provider == null) {
+                continue;
+            }
+            String name = provider.name().isEmpty() ? method.getName() : provider.name();
+            if (!name.equals(dataProviderName) || method.getParameterCount() != 0) {
+                continue;
+            }
+            method.setAccessible(true);
+            Object target = Modifier.isStatic(method.getModifiers()) ? null : testClass.getDeclaredConstructor().newInstance();
+            Object data = method.invoke(target);
+            if (data instanceof Object[][]) {
+                return ((Object[][]) data).length;
+            }
+            if (data instanceof Iterator) {
+                int rows = 0;
+                for (Iterator<?> iterator = (Iterator<?>) data; iterator.hasNext(); iterator.next()) {
+                    rows++;
+                }
+                return rows;
+            }
+        }
+        // Provider lives elsewhere or needs arguments; run the method with all its rows as one item
+        return -1;
+    }
+
+    public Map<String, String> run(List<String> items) throws InterruptedException, IOException {
+        items.sort((a, b) -> Long.compare(history.getExpectedMillis(b), history.getExpectedMillis(a)));
+        queue.addAll(items);
+        StreamingReport.clearShards(StreamingReport.SHARD_DIRECTORY);
+        long start = System.nanoTime();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            String workerId = "shard-" + i;
+            Thread thread = new Thread(() -> driveWorker(workerId), workerId);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Left over when workers could not be started
+        String unrun;
+        while ((unrun = queue.poll()) != null) {
+            results.put(unrun, "NOT_RUN");
+            System.out.println("Not run: " + unrun);
+        }
+
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        history.save();
+        FailureTriage.finishRun();
+        TestImpactIndex.finishRun();
+        for (TimingHistory.Regression regression : TimingHistory.finishRun(TimingHistory.DEFAULT_FILE)) {
+            System.out.println("Performance regression " + regression);
+        }
+        try {
+            StreamingReport.mergeShardsIntoHtml(StreamingReport.SHARD_DIRECTORY, StreamingReport.MERGED_REPORT);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        System.out.println("Ran " + results.size() + " items on " + workerCount + " workers in " + wallMillis
+                + " ms; total work " + totalWorkMillis.get() + " ms, ideal " + totalWorkMillis.get() / Math.max(1, workerCount) + " ms");
+        return results;
+    }
+
+    // A worker that dies fails its current item and is replaced, so one crash does not stall the queue
+    private void driveWorker(String workerId) {
+        while (!queue.isEmpty()) {
+            Process process;
+            try {
+                process = startWorker(workerId);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            try (PrintWriter toWorker = new PrintWriter(process.getOutputStream(), true, StandardCharsets.UTF_8);
+                 BufferedReader fromWorker = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String item;
+                while ((item = queue.poll()) != null) {
+                    toWorker.println("RUN " + item);
+                    String outcome = awaitDone(workerId, fromWorker, toWorker);
+                    if (outcome == null) {
+                        results.put(item, "FAIL");
+                        System.out.println("[" + workerId + "] worker exited while running " + item);
+                        break;
+                    }
+                    String[] parts = outcome.split(" ");
+                    long millis = Long.parseLong(parts[parts.length - 1]);
+                    results.put(item, parts[parts.length - 2]);
+                    history.record(item, millis);
+                    totalWorkMillis.addAndGet(millis);
+                }
+                toWorker.println("EXIT");
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Returns the DONE line; what the listeners collected on the way is merged into this JVM's reports.
+    // The worker's stdout carries only marker lines; anything else there is printed as worker output
+    private String awaitDone(String workerId, BufferedReader fromWorker, PrintWriter toWorker) throws IOException {
+        String line;
+        while ((line = fromWorker.readLine()) != null) {
+            if (!line.startsWith(ShardWorker.MARKER)) {
+                System.out.println("[" + workerId + "] " + line);
+                continue;
+            }
+            String report = line.substring(ShardWorker.MARKER.length());
+            int space = report.indexOf(' ');
+            String body = report.substring(space + 1);
+            switch (report.substring(0, space)) {
+                case "DONE":
+                    return report;
+                case "RETRY":
+                    toWorker.println(grantRetry() ? "GRANT" : "DENY");
+                    break;
+                case "TRIAGE":
+                    FailureTriage.mergeOutcome(body);
+                    break;
+                case "IMPACT":
+                    TestImpactIndex.mergeRecorded(body);
+                    break;
+                case "TIMING":
+                    TimingHistory.mergeRun(body);
+                    break;
+                case "PAGE":
+                    InteractionMetrics.mergePerPageMethod(body);
+                    break;
+                default:
+                    System.out.println("[" + workerId + "] " + line);
+            }
+        }
+        return null;
+    }
+
+    boolean grantRetry() {
+        return retryBudget.getAndDecrement() > 0;
+    }
+
+    // Config overrides given to the scheduler with -D are passed on, so every worker sees the same configuration
+    private Process startWorker(String workerId) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Dreport.workerId=" + workerId);
+        for (String key : PropertyUtils.getSnapshot().keySet()) {
+            String override = System.getProperty(key);
+            if (override != null) {
+                command.add("-D" + key + "=" + override);
+            }
+        }
+        for (String key : new String[]{"profile", "config.file"}) {
+            if (System.getProperty(key) != null) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        command.add(ShardWorker.class.getName());
+        Process process = new ProcessBuilder(command).start();
+        Thread output = new Thread(() -> copyOutput(workerId, process), workerId + "-output");
+        output.setDaemon(true);
+        output.start();
+        return process;
+    }
+
+    // Test output reaches the scheduler on the worker's stderr, apart from the markers, so an unfinished line cannot
+    // swallow one
+    private static void copyOutput(String workerId, Process process) {
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                System.out.println("[" + workerId + "] " + line);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
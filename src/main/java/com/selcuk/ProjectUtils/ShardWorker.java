@@ -0,0 +1,158 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+// Forked JVM started by ShardScheduler. Reads "RUN class#method#row" lines from stdin, runs that one TestNG method
+// (restricted to that data row) and answers with marker lines: what the listeners collected for the shared reports,
+// then "DONE <item> <status> <millis>". Markers own stdout; everything the tests print is sent to stderr instead.
+// A retry is asked for with "RETRY <item>" and waits for the scheduler's GRANT or DENY on stdin.
+public class ShardWorker implements IDataProviderInterceptor, ITestListener {
+    static final String MARKER = "##SHARD## ";
+
+    static volatile int selectedRow = -1;
+    private static PrintStream markers;
+    private static BufferedReader in;
+    private static volatile String currentItem;
+    private String status;
+    private String message;
+
+    public static void main(String[] args) throws IOException {
+        markers = new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8);
+        System.setOut(System.err);
+        FailureTriage.reportToScheduler = true;
+        TestImpactIndex.reportToScheduler = true;
+        TimingHistory.reportToScheduler = true;
+        RetryAnalyzer.budget = ShardWorker::requestRetry;
+        in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals("EXIT")) {
+                break;
+            }
+            if (line.startsWith("RUN ")) {
+                String item = line.substring(4).trim();
+                currentItem = item;
+                long start = System.nanoTime();
+                ShardWorker worker = new ShardWorker();
+                worker.run(item);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                for (String outcome : FailureTriage.drainOutcomes()) {
+                    markers.println(MARKER + "TRIAGE " + outcome);
+                }
+                for (String recorded : TestImpactIndex.drainRecorded()) {
+                    markers.println(MARKER + "IMPACT " + recorded);
+                }
+                for (String timing : TimingHistory.drainRun()) {
+                    markers.println(MARKER + "TIMING " + timing);
+                }
+                for (String pageMethod : InteractionMetrics.drainPerPageMethod()) {
+                    markers.println(MARKER + "PAGE " + pageMethod);
+                }
+                markers.println(MARKER + "DONE " + item + " " + worker.status + " " + millis);
+                markers.flush();
+            }
+        }
+        DriverFactory.quitDriver();
+        StreamingReport.closeShard();
+    }
+
+    // The test is still running on this thread, so the next line on stdin is the scheduler's answer
+    private static synchronized boolean requestRetry() {
+        markers.println(MARKER + "RETRY " + currentItem);
+        markers.flush();
+        try {
+            return "GRANT".equals(in.readLine());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void run(String item) {
+        String[] parts = item.split("#");
+        selectedRow = parts.length > 2 ? Integer.parseInt(parts[2]) : -1;
+        status = "SKIP";
+
+        XmlSuite suite = new XmlSuite();
+        suite.setName("shard");
+        XmlTest test = new XmlTest(suite);
+        test.setName(item);
+        XmlClass xmlClass = new XmlClass(parts[0]);
+        xmlClass.getIncludedMethods().add(new XmlInclude(parts[1]));
+        test.getXmlClasses().add(xmlClass);
+
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setXmlSuites(Collections.singletonList(suite));
+        testng.addListener(this);
+        testng.addListener(new FailureTriage());
+        testng.addListener(new TestImpactIndex());
+        testng.addListener(new TimingHistory());
+        testng.run();
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> original, IDataProviderMethod dataProviderMethod,
+                                        ITestNGMethod method, ITestContext iTestContext) {
+        if (selectedRow < 0) {
+            return original;
+        }
+        List<Object[]> selected = new ArrayList<>(1);
+        for (int row = 0; original.hasNext(); row++) {
+            Object[] parameters = original.next();
+            if (row == selectedRow) {
+                selected.add(parameters);
+                break;
+            }
+        }
+        return selected.iterator();
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finish(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finish(result, "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        finish(result, "SKIP");
+    }
+
+    private void finish(ITestResult result, String outcome) {
+        // One failing invocation fails the whole item
+        if (!"FAIL".equals(status)) {
+            status = outcome;
+        }
+        Throwable error = result.getThrowable();
+        message = error == null ? null : error.getClass().getSimpleName() + ": " + error.getMessage();
+        String name = ShardScheduler.itemId(result.getTestClass().getName(), result.getMethod().getMethodName(), selectedRow);
+        StreamingReport.recordTestResult(name, outcome, result.getEndMillis() - result.getStartMillis(), null, message);
+    }
+}
@@ -0,0 +1,187 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.openqa.selenium.bidi.browsingcontext.ReadinessState;
+import org.openqa.selenium.bidi.module.Browser;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One browser process per JVM, shared by all tests when browserContexts=true. Each test gets its own BiDi user
+// context (an incognito-like profile with separate cookies, storage and cache) with one tab in it, wrapped in a
+// ContextBoundDriver. Page loads go over BiDi to the test's own tab and run side by side; other commands from different
+// tests are serialized on the classic session, as are the window switches between them. Waits and test logic are not
+// serialized, so many mostly-waiting tests share one process instead of each starting its own.
+public class SharedBrowser {
+    private static SharedBrowser instance;
+
+    private final WebDriver driver;
+    private final Dimension windowSize;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final AtomicInteger openContexts = new AtomicInteger();
+    private final Duration defaultScriptTimeout;
+    private final Duration defaultPageLoadTimeout;
+    private Browser bidi;
+    private String activeHandle;
+    private Duration appliedScriptTimeout;
+    private Duration appliedPageLoadTimeout;
+
+    SharedBrowser(WebDriver driver, Dimension windowSize) {
+        this.driver = driver;
+        this.windowSize = windowSize;
+        this.activeHandle = driver.getWindowHandle();
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        this.defaultScriptTimeout = timeouts.getScriptTimeout();
+        this.defaultPageLoadTimeout = timeouts.getPageLoadTimeout();
+        this.appliedScriptTimeout = defaultScriptTimeout;
+        this.appliedPageLoadTimeout = defaultPageLoadTimeout;
+    }
+
+    public static synchronized SharedBrowser getInstance() {
+        if (instance == null) {
+            instance = launch();
+            Runtime.getRuntime().addShutdownHook(new Thread(SharedBrowser::shutdown));
+        }
+        return instance;
+    }
+
+    private static SharedBrowser launch() {
+        DriverFactory.LaunchProfile profile = DriverFactory.LaunchProfile.valueOf(
+                PropertyUtils.getProperty("browserProfile", "DEFAULT").trim().toUpperCase());
+        Dimension windowSize = DriverFactory.parseWindowSize(PropertyUtils.getProperty("windowSize", "1366x768"));
+        String browser = PropertyUtils.getProperty("browserName", "chrome").trim().toLowerCase();
+        long start = System.nanoTime();
+        WebDriver driver;
+        // webSocketUrl asks the driver for a BiDi connection alongside the classic session
+        if (browser.equals("firefox")) {
+            FirefoxOptions options = DriverFactory.firefoxOptions(profile, windowSize);
+            options.setCapability("webSocketUrl", true);
+            driver = new FirefoxDriver(options);
+        } else if (browser.equals("edge")) {
+            EdgeOptions options = DriverFactory.edgeOptions(profile, windowSize);
+            options.setCapability("webSocketUrl", true);
+            driver = new EdgeDriver(options);
+        } else {
+            ChromeOptions options = DriverFactory.chromeOptions(profile, windowSize);
+            options.setCapability("webSocketUrl", true);
+            driver = new ChromeDriver(options);
+        }
+        DriverFactory.recordStartup(browser, profile, true, start);
+        return new SharedBrowser(driver, windowSize);
+    }
+
+    // A new isolated context and tab. Closing or quitting the returned driver removes the context, not the browser.
+    public WebDriver openContext() {
+        lock();
+        try {
+            String userContext = bidi().createUserContext();
+            BrowsingContext tab = new BrowsingContext(driver, new CreateContextParameters(WindowType.TAB).userContext(userContext));
+            tab.setViewport(windowSize.getWidth(), windowSize.getHeight());
+            openContexts.incrementAndGet();
+            return ContextBoundDriver.create(this, userContext, tab.getId());
+        } finally {
+            unlock();
+        }
+    }
+
+    void closeContext(String userContext, String handle) {
+        lock();
+        try {
+            new BrowsingContext(driver, handle).close();
+            bidi().removeUserContext(userContext);
+            if (handle.equals(activeHandle)) {
+                activeHandle = null;
+            }
+            openContexts.decrementAndGet();
+        } finally {
+            unlock();
+        }
+    }
+
+    // Called with the lock held
+    private Browser bidi() {
+        if (bidi == null) {
+            bidi = new Browser(driver);
+        }
+        return bidi;
+    }
+
+    // Page loads are addressed to the tab by its context id, so they neither take the lock nor switch windows
+    void navigate(String handle, String url) {
+        new BrowsingContext(driver, handle).navigate(url, ReadinessState.COMPLETE);
+    }
+
+    void traverseHistory(String handle, long delta) {
+        new BrowsingContext(driver, handle).traverseHistory(delta);
+    }
+
+    void reload(String handle) {
+        new BrowsingContext(driver, handle).reload(ReadinessState.COMPLETE);
+    }
+
+    public int getOpenContextCount() {
+        return openContexts.get();
+    }
+
+    WebDriver getRawDriver() {
+        return driver;
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    // Called with the lock held; the classic session has one current window, so it follows whichever context runs
+    void activate(String handle) {
+        if (!handle.equals(activeHandle)) {
+            driver.switchTo().window(handle);
+            activeHandle = handle;
+        }
+    }
+
+    void activated(String handle) {
+        activeHandle = handle;
+    }
+
+    // Called with the lock held; timeouts are session-wide, so the running context's own values are put back first
+    void applyTimeouts(Duration scriptTimeout, Duration pageLoadTimeout) {
+        if (!scriptTimeout.equals(appliedScriptTimeout)) {
+            driver.manage().timeouts().scriptTimeout(scriptTimeout);
+            appliedScriptTimeout = scriptTimeout;
+        }
+        if (!pageLoadTimeout.equals(appliedPageLoadTimeout)) {
+            driver.manage().timeouts().pageLoadTimeout(pageLoadTimeout);
+            appliedPageLoadTimeout = pageLoadTimeout;
+        }
+    }
+
+    Duration getDefaultScriptTimeout() {
+        return defaultScriptTimeout;
+    }
+
+    Duration getDefaultPageLoadTimeout() {
+        return defaultPageLoadTimeout;
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.driver.quit();
+            instance = null;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.selcuk.ProjectUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Append-only NDJSON report. Every JVM fork writes its own shard and nothing is kept in memory,
+// so the HTML view is produced afterwards by merging the shards one line at a time.
+public class StreamingReport {
+    public static final Path SHARD_DIRECTORY = Paths.get(System.getProperty("user.dir"), "Reports", "shards");
+    public static final Path MERGED_REPORT = Paths.get(System.getProperty("user.dir"), "Reports", "StreamingReport.html");
+
+    private static BufferedWriter shardWriter;
+    private static Path shardFile;
+
+    public static synchronized Path getShardFile() {
+        if (shardFile == null) {
+            String workerId = System.getProperty("report.workerId", String.valueOf(ProcessHandle.current().pid()));
+            shardFile = SHARD_DIRECTORY.resolve("results-" + workerId + ".ndjson");
+        }
+        return shardFile;
+    }
+
+    public static synchronized void recordTestResult(String testName, String status, long durationMillis,
+                                                     String screenshotPath, String message) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("test", testName);
+        line.put("status", status);
+        line.put("durationMs", durationMillis);
+        line.put("thread", Thread.currentThread().getName());
+        line.put("timestamp", System.currentTimeMillis());
+        line.put("screenshot", screenshotPath);
+        line.put("message", message);
+        writeLine(toJson(line));
+    }
+
+    private static void writeLine(String json) {
+        try {
+            if (shardWriter == null) {
+                Files.createDirectories(SHARD_DIRECTORY);
+                shardWriter = Files.newBufferedWriter(getShardFile(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                Runtime.getRuntime().addShutdownHook(new Thread(StreamingReport::closeShard));
+            }
+            shardWriter.write(json);
+            shardWriter.newLine();
+            // Flushed per line so a crashed fork still leaves a readable shard behind
+            shardWriter.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static synchronized void closeShard() {
+        if (shardWriter != null) {
+            try {
+                shardWriter.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            shardWriter = null;
+        }
+    }
+
+    // Shards are appended to and keep their names across runs, so a new run starts by removing the previous run's
+    public static void clearShards(Path shardDirectory) throws IOException {
+        for (Path shard : listShards(shardDirectory)) {
+            Files.deleteIfExists(shard);
+        }
+    }
+
+    public static void mergeShardsIntoHtml(Path shardDirectory, Path htmlFile) throws IOException {
+        List<Path> shards = listShards(shardDirectory);
+
+        // First pass only counts, second pass streams the rows, so memory stays flat for any run size
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        long totalDuration = 0;
+        for (Path shard : shards) {
+            try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    Map<String, String> entry = parseFlatJson(line);
+                    statusCounts.merge(entry.getOrDefault("status", "UNKNOWN"), 1L, Long::sum);
+                    totalDuration += parseLong(entry.get("durationMs"));
+                }
+            }
+        }
+
+        Files.createDirectories(htmlFile.toAbsolutePath().getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(htmlFile, StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>TN Report</title>");
+            out.write("<style>body{font-family:sans-serif}table{border-collapse:collapse;width:100%}"
+                    + "td,th{border:1px solid #ccc;padding:4px;text-align:left}"
+                    + ".PASS{background:#e6f4ea}.FAIL{background:#fce8e6}.SKIP{background:#fef7e0}</style>");
+            out.write("</head><body><h1>TutorialsNinja Results</h1><p>");
+            for (Map.Entry<String, Long> count : statusCounts.entrySet()) {
+                out.write(escapeHtml(count.getKey()) + ": " + count.getValue() + " &nbsp; ");
+            }
+            out.write("Total duration: " + totalDuration + " ms &nbsp; Shards: " + shards.size() + "</p>");
+            out.write("<table><tr><th>Test</th><th>Status</th><th>Duration (ms)</th><th>Thread</th>"
+                    + "<th>Shard</th><th>Message</th><th>Screenshot</th></tr>");
+            for (Path shard : shards) {
+                String shardName = escapeHtml(shard.getFileName().toString());
+                try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isEmpty()) {
+                            continue;
+                        }
+                        Map<String, String> entry = parseFlatJson(line);
+                        String status = entry.getOrDefault("status", "UNKNOWN");
+                        String screenshot = entry.get("screenshot");
+                        out.write("<tr class=\"" + escapeHtml(status) + "\"><td>" + escapeHtml(entry.get("test"))
+                                + "</td><td>" + escapeHtml(status)
+                                + "</td><td>" + escapeHtml(entry.get("durationMs"))
+                                + "</td><td>" + escapeHtml(entry.get("thread"))
+                                + "</td><td>" + shardName
+                                + "</td><td>" + escapeHtml(entry.get("message"))
+                                + "</td><td>" + (screenshot == null ? "" : "<a href=\"" + escapeHtml(screenshot) + "\">screenshot</a>")
+                                + "</td></tr>");
+                        out.newLine();
+                    }
+                }
+            }
+            out.write("</table></body></html>");
+        }
+    }
+
+    private static List<Path> listShards(Path shardDirectory) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        if (!Files.isDirectory(shardDirectory)) {
+            return shards;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(shardDirectory, "*.ndjson")) {
+            for (Path shard : stream) {
+                shards.add(shard);
+            }
+        }
+        Collections.sort(shards);
+        return shards;
+    }
+
+    static String toJson(Map<String, Object> values) {
+        StringBuilder json = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(escapeJson(value.getKey())).append("\":");
+            Object v = value.getValue();
+            if (v == null) {
+                json.append("null");
+            } else if (v instanceof Number || v instanceof Boolean) {
+                json.append(v);
+            } else {
+                json.append('"').append(escapeJson(v.toString())).append('"');
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    // Only understands the flat objects written by toJson: string, number, boolean and null values
+    static Map<String, String> parseFlatJson(String json) {
+        Map<String, String> values = new LinkedHashMap<>();
+        int i = json.indexOf('{') + 1;
+        while (i < json.length()) {
+            int keyStart = json.indexOf('"', i);
+            if (keyStart < 0) {
+                break;
+            }
+            StringBuilder key = new StringBuilder();
+            i = readJsonString(json, keyStart + 1, key);
+            i = json.indexOf(':', i) + 1;
+            while (i < json.length() && json.charAt(i) == ' ') {
+                i++;
+            }
+            if (json.charAt(i) == '"') {
+                StringBuilder value = new StringBuilder();
+                i = readJsonString(json, i + 1, value);
+                values.put(key.toString(), value.toString());
+            } else {
+                int end = i;
+                while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+                    end++;
+                }
+                String raw = json.substring(i, end).trim();
+                values.put(key.toString(), raw.equals("null") ? null : raw);
+                i = end;
+            }
+            i++;
+        }
+        return values;
+    }
+
+    private static int readJsonString(String json, int from, StringBuilder target) {
+        int i = from;
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c == '\\' && i + 1 < json.length()) {
+                char next = json.charAt(++i);
+                switch (next) {
+                    case 'n': target.append('\n'); break;
+                    case 'r': target.append('\r'); break;
+                    case 't': target.append('\t'); break;
+                    case 'u':
+                        target.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                        i += 4;
+                        break;
+                    default: target.append(next);
+                }
+            } else {
+                target.append(c);
+            }
+            i++;
+        }
+        return i;
+    }
+
+    static String escapeJson(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': escaped.append("\\\""); break;
+                case '\\': escaped.append("\\\\"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path shardDirectory = args.length > 0 ? Paths.get(args[0]) : SHARD_DIRECTORY;
+        Path htmlFile = args.length > 1 ? Paths.get(args[1]) : MERGED_REPORT;
+        mergeShardsIntoHtml(shardDirectory, htmlFile);
+        System.out.println("Merged report written to " + htmlFile.toAbsolutePath());
+    }
+}
@@ -0,0 +1,59 @@
+package com.selcuk.ProjectUtils;
+
+public class TestAccount {
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String telephone;
+    private final String password;
+
+    public TestAccount(String firstName, String lastName, String email, String telephone, String password) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.telephone = telephone;
+        this.password = password;
+    }
+
+    public static TestAccount generate(String password) {
+        return new TestAccount(UniqueDataGenerator.generateFirstName(), UniqueDataGenerator.generateLastName(),
+                UniqueDataGenerator.generateEmail(), UniqueDataGenerator.generateTelephoneNumber(), password);
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelephone() {
+        return telephone;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    String toLine() {
+        return String.join(",", firstName, lastName, email, telephone, password);
+    }
+
+    static TestAccount fromLine(String line) {
+        String[] parts = line.split(",", -1);
+        if (parts.length != 5) {
+            return null;
+        }
+        return new TestAccount(parts[0], parts[1], parts[2], parts[3], parts[4]);
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
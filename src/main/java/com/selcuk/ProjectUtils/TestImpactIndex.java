@@ -0,0 +1,443 @@
+package com.selcuk.ProjectUtils;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.testng.IConfigurationListener;
+import org.testng.IDataProviderListener;
+import org.testng.IDataProviderMethod;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Which page-object methods, @FindBy locators, property keys and workbook sheets each test used in the last full run.
+// Register it as a TestNG listener to record (interaction metrics must be on; they supply locators and page methods).
+// Later runs pass a git ref to select only the tests whose dependencies changed since then:
+//   TestImpactIndex <base ref>             prints the impacted tests
+//   ShardScheduler --impacted <base ref>   runs only those
+// Changes it cannot map (framework utilities, build files) select everything, and tests missing from the index always run.
+public class TestImpactIndex implements ITestListener, IDataProviderListener, IConfigurationListener {
+    public static final Path INDEX_FILE = Paths.get(System.getProperty("user.dir"), "Reports", "test-impact-index.properties");
+    public static final String ALL = "*";
+    // Entry for what a class-level configuration method (@BeforeClass, @AfterClass) used; it applies to every test in the class
+    public static final String CLASS_CONFIGURATION = "<configuration>";
+
+    private static final String PAGE_SOURCES = "src/main/java/com/selcuk/FrameworkPages/";
+    private static final String TEST_SOURCES = "src/test/java/";
+    private static final String TEST_RESOURCES = "src/test/resources/";
+    private static final Pattern FIND_BY_USING = Pattern.compile("@FindBy\\(.*using\\s*=\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern PROPERTY_KEY = Pattern.compile("^\\s*([^#!\\s=:][^\\s=:]*)\\s*[=:]?");
+
+    private static volatile boolean recording;
+    private static final Map<String, Set<String>> RECORDED = new ConcurrentHashMap<>();
+
+    // Set by ShardWorker: recorded dependencies go to the scheduler instead of the index file
+    static volatile boolean reportToScheduler;
+
+    private final Map<String, Set<String>> index;
+
+    public TestImpactIndex() {
+        this(new TreeMap<>());
+    }
+
+    private TestImpactIndex(Map<String, Set<String>> index) {
+        this.index = index;
+    }
+
+    static boolean isRecording() {
+        return recording;
+    }
+
+    // Recording hooks, called from InteractionMetrics, PropertyUtils and the test data readers
+
+    static void recordPageMethod(String pageMethod) {
+        if (recording) {
+            record("method:" + pageMethod);
+            record("class:" + pageMethod.substring(0, pageMethod.indexOf('.')));
+        }
+    }
+
+    static void recordLocator(String locator) {
+        if (recording) {
+            record("locator:" + locator);
+        }
+    }
+
+    static void recordProperty(String key) {
+        if (recording) {
+            record("property:" + key);
+        }
+    }
+
+    static void recordSheet(String sheetName) {
+        if (recording) {
+            record("sheet:" + sheetName);
+        }
+    }
+
+    private static void record(String dependency) {
+        String test = InteractionMetrics.getCurrentTest();
+        if (test != null) {
+            RECORDED.computeIfAbsent(test, t -> ConcurrentHashMap.newKeySet()).add(dependency);
+        }
+    }
+
+    private static String testKey(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        recording = true;
+    }
+
+    @Override
+    public void beforeDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method, ITestContext context) {
+        InteractionMetrics.startTest(testKey(method));
+    }
+
+    @Override
+    public void afterDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method, ITestContext context) {
+        InteractionMetrics.endTest();
+    }
+
+    // @BeforeMethod and @AfterMethod count towards their test; class-level configuration towards the whole class
+    @Override
+    public void beforeConfiguration(ITestResult result, ITestNGMethod testMethod) {
+        if (testMethod != null) {
+            InteractionMetrics.startTest(testKey(testMethod));
+        } else if (result.getTestClass() != null) {
+            InteractionMetrics.startTest(result.getTestClass().getName() + "#" + CLASS_CONFIGURATION);
+        }
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult result, ITestNGMethod testMethod) {
+        endConfiguration(testMethod);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result, ITestNGMethod testMethod) {
+        endConfiguration(testMethod);
+    }
+
+    @Override
+    public void onConfigurationSkip(ITestResult result, ITestNGMethod testMethod) {
+        endConfiguration(testMethod);
+    }
+
+    private static void endConfiguration(ITestNGMethod testMethod) {
+        if (testMethod == null) {
+            InteractionMetrics.endTest();
+        }
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        InteractionMetrics.startTest(testKey(result.getMethod()));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        InteractionMetrics.endTest();
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        InteractionMetrics.endTest();
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        InteractionMetrics.endTest();
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        if (!reportToScheduler) {
+            finishRun();
+        }
+    }
+
+    // "<test>\t<dependency>\t<dependency>..." per test this JVM recorded since the last call
+    static synchronized List<String> drainRecorded() {
+        List<String> recorded = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> test : new TreeMap<>(RECORDED).entrySet()) {
+            recorded.add(test.getKey() + "\t" + String.join("\t", new TreeSet<>(test.getValue())));
+        }
+        RECORDED.clear();
+        return recorded;
+    }
+
+    // Called by ShardScheduler for each line a worker reported; the data rows of one test add up
+    static synchronized void mergeRecorded(String line) {
+        String[] parts = line.split("\t");
+        Set<String> dependencies = RECORDED.computeIfAbsent(parts[0], t -> ConcurrentHashMap.newKeySet());
+        dependencies.addAll(List.of(parts).subList(1, parts.length));
+    }
+
+    // Tests that ran replace their old entries; tests that did not run keep theirs
+    public static synchronized void finishRun() {
+        if (RECORDED.isEmpty()) {
+            return;
+        }
+        TestImpactIndex merged = load(INDEX_FILE);
+        for (Map.Entry<String, Set<String>> test : RECORDED.entrySet()) {
+            merged.index.put(test.getKey(), new TreeSet<>(test.getValue()));
+        }
+        merged.save(INDEX_FILE);
+        RECORDED.clear();
+    }
+
+    public static TestImpactIndex load(Path file) {
+        Map<String, Set<String>> index = new TreeMap<>();
+        if (Files.exists(file)) {
+            Properties prop = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                prop.load(reader);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            for (String test : prop.stringPropertyNames()) {
+                index.put(test, new TreeSet<>(List.of(prop.getProperty(test).split("\t"))));
+            }
+        }
+        return new TestImpactIndex(index);
+    }
+
+    public synchronized void save(Path file) {
+        Properties prop = new Properties();
+        for (Map.Entry<String, Set<String>> test : index.entrySet()) {
+            prop.setProperty(test.getKey(), String.join("\t", test.getValue()));
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "test-impact-index", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                prop.store(writer, "Test -> page methods, locators, property keys and sheets it used");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public boolean contains(String test) {
+        return index.containsKey(test);
+    }
+
+    // Changes are dependency strings as recorded ("class:RegisterPage", "property:registerPageURL", "sheet:Data"),
+    // "findBy:<using value>" for a changed locator, "testClass:<simple name>" for an edited test, or ALL
+    public Set<String> select(Collection<String> changes) {
+        if (changes.contains(ALL)) {
+            return new TreeSet<>(index.keySet());
+        }
+        Set<String> selected = new TreeSet<>();
+        for (Map.Entry<String, Set<String>> test : index.entrySet()) {
+            String simpleClass = test.getKey().substring(test.getKey().lastIndexOf('.') + 1, test.getKey().indexOf('#'));
+            for (String change : changes) {
+                if (test.getValue().contains(change) || change.equals("testClass:" + simpleClass)
+                        || change.startsWith("findBy:") && usesLocator(test.getValue(), change.substring(7))) {
+                    selected.add(test.getKey());
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static boolean usesLocator(Set<String> dependencies, String using) {
+        for (String dependency : dependencies) {
+            if (dependency.startsWith("locator:") && dependency.endsWith(": " + using)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Should a test run, given what changed? Unknown tests always run
+    public boolean isImpacted(String test, Set<String> selected) {
+        String classConfiguration = test.substring(0, test.indexOf('#') + 1) + CLASS_CONFIGURATION;
+        return selected.contains(test) || selected.contains(classConfiguration) || !index.containsKey(test);
+    }
+
+    public static List<String> changesSince(String baseRef) throws IOException {
+        List<String> changes = new ArrayList<>();
+        for (String path : git("diff", "--name-only", baseRef, "--")) {
+            if (path.isEmpty()) {
+                continue;
+            }
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
+            if (path.startsWith(PAGE_SOURCES) && fileName.endsWith(".java")) {
+                changes.addAll(pageChanges(baseRef, path, fileName.substring(0, fileName.length() - 5)));
+            } else if (path.startsWith(TEST_SOURCES) && fileName.endsWith(".java")) {
+                changes.add("testClass:" + fileName.substring(0, fileName.length() - 5));
+            } else if (path.startsWith(TEST_RESOURCES) && fileName.endsWith(".properties")) {
+                for (String line : changedLines(baseRef, path)) {
+                    Matcher key = PROPERTY_KEY.matcher(line);
+                    if (key.find()) {
+                        changes.add("property:" + key.group(1));
+                    }
+                }
+            } else if (path.startsWith(TEST_RESOURCES) && (fileName.endsWith(".xlsx") || fileName.endsWith(".xls"))) {
+                changes.addAll(sheetChanges(baseRef, path));
+            } else if (!path.endsWith(".md") && !path.startsWith("Reports/")) {
+                changes.add(ALL);
+            }
+        }
+        return changes;
+    }
+
+    // An edit that only touches @FindBy lines selects the tests using those locators; any other edit selects the class
+    private static List<String> pageChanges(String baseRef, String path, String className) throws IOException {
+        List<String> changes = new ArrayList<>();
+        boolean otherEdits = false;
+        for (String line : changedLines(baseRef, path)) {
+            Matcher findBy = FIND_BY_USING.matcher(line);
+            if (findBy.find()) {
+                changes.add("findBy:" + findBy.group(1).replace("\\\"", "\""));
+            } else if (!line.trim().isEmpty()) {
+                otherEdits = true;
+            }
+        }
+        if (otherEdits) {
+            changes.add("class:" + className);
+        }
+        return changes;
+    }
+
+    private static List<String> changedLines(String baseRef, String path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String line : git("diff", "-U0", baseRef, "--", path)) {
+            if ((line.startsWith("+") || line.startsWith("-")) && !line.startsWith("+++") && !line.startsWith("---")) {
+                lines.add(line.substring(1));
+            }
+        }
+        return lines;
+    }
+
+    // Workbooks are binary, so the old and new versions are compared cell by cell per sheet
+    private static List<String> sheetChanges(String baseRef, String path) throws IOException {
+        List<String> changes = new ArrayList<>();
+        // A workbook added since the base ref has no old version
+        boolean existedAtBase = !git("ls-tree", "--name-only", baseRef, "--", path).isEmpty();
+        Map<String, List<String>> before = WorkbookContents.sheetContents(existedAtBase ? gitBytes("show", baseRef + ":" + path) : null);
+        Map<String, List<String>> after = WorkbookContents.sheetContents(Files.exists(Paths.get(path)) ? Files.readAllBytes(Paths.get(path)) : null);
+        Set<String> sheets = new HashSet<>(before.keySet());
+        sheets.addAll(after.keySet());
+        for (String sheet : sheets) {
+            if (!String.valueOf(before.get(sheet)).equals(String.valueOf(after.get(sheet)))) {
+                changes.add("sheet:" + sheet);
+            }
+        }
+        return changes;
+    }
+
+    private static List<String> git(String... args) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(gitBytes(args)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    // A failing git command (unknown ref, not a repository) fails the selection instead of reading as "no changes"
+    private static byte[] gitBytes(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        Path errors = Files.createTempFile("git", ".err");
+        try {
+            Process process = new ProcessBuilder(command).redirectError(errors.toFile()).start();
+            byte[] output;
+            try (InputStream in = process.getInputStream()) {
+                output = in.readAllBytes();
+            }
+            int exitCode;
+            try {
+                exitCode = process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroy();
+                throw new InterruptedIOException(String.join(" ", command) + " was interrupted");
+            }
+            if (exitCode != 0) {
+                throw new IOException(String.join(" ", command) + " exited with " + exitCode + ": "
+                        + new String(Files.readAllBytes(errors), StandardCharsets.UTF_8).trim());
+            }
+            return output;
+        } finally {
+            Files.deleteIfExists(errors);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: TestImpactIndex <base ref>");
+            return;
+        }
+        TestImpactIndex index = load(INDEX_FILE);
+        List<String> changes = changesSince(args[0]);
+        Set<String> selected = index.select(changes);
+        System.out.println("Changes since " + args[0] + ": " + new TreeSet<>(changes));
+        System.out.println("Impacted " + selected.size() + " of " + index.index.size() + " indexed tests");
+        for (String test : selected) {
+            System.out.println(test);
+        }
+    }
+
+    // POI is only needed when a workbook changed, so it stays out of TestImpactIndex itself, which runs in every test JVM
+    private static final class WorkbookContents {
+        static Map<String, List<String>> sheetContents(byte[] workbookBytes) throws IOException {
+            Map<String, List<String>> contents = new TreeMap<>();
+            if (workbookBytes == null || workbookBytes.length == 0) {
+                return contents;
+            }
+            try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(workbookBytes))) {
+                for (Sheet sheet : workbook) {
+                    List<String> cells = new ArrayList<>();
+                    for (Row row : sheet) {
+                        for (Cell cell : row) {
+                            cells.add(cell.getAddress() + "=" + cell);
+                        }
+                    }
+                    contents.put(sheet.getSheetName(), cells);
+                }
+            }
+            return contents;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Timings of earlier runs, one value per run and key, kept as a rolling window in Reports/timing-history.properties.
+// Keys are tests (with their data row when sharded), in milliseconds, and page-object methods, whose p50 and p95
+// latency per run are kept in microseconds. At the end of a run the last few runs are compared with the ones before
+// them with a one-sided Mann-Whitney test; a key is flagged when it is significantly slower and the median moved by at
+// least perfRegressionMinShift (default 10%). Registered through META-INF/services/org.testng.ITestNGListener, it records
+// every passing test's duration itself; a data-driven method run in one JVM is one key, the median of its rows. In a
+// sharded run the workers report their test timings and page-method statistics to ShardScheduler, which calls
+// finishRun once for the whole run.
+public class TimingHistory implements ISuiteListener, ITestListener {
+    public static final Path DEFAULT_FILE = Paths.get(System.getProperty("user.dir"), "Reports", "timing-history.properties");
+    public static final Path REGRESSION_REPORT = Paths.get(System.getProperty("user.dir"), "Reports", "performance-regressions.csv");
+
+    private static final int WINDOW = 40;
+    private static final int RECENT_RUNS = 5;
+    private static final int MIN_BASELINE_RUNS = 8;
+    // One-sided p < 0.01
+    private static final double CRITICAL_Z = 2.326;
+
+    private static final Map<String, Queue<Long>> CURRENT_RUN = new ConcurrentHashMap<>();
+
+    // Set by ShardWorker: timings go to the scheduler instead of the files
+    static volatile boolean reportToScheduler;
+
+    public static class Regression {
+        public final String key;
+        public final long baselineMedian;
+        public final long recentMedian;
+        public final double z;
+
+        Regression(String key, long baselineMedian, long recentMedian, double z) {
+            this.key = key;
+            this.baselineMedian = baselineMedian;
+            this.recentMedian = recentMedian;
+            this.z = z;
+        }
+
+        @Override
+        public String toString() {
+            return key + ": median " + baselineMedian + " -> " + recentMedian + String.format(" (z=%.2f)", z);
+        }
+    }
+
+    // Failed and skipped tests are left out; their duration says more about the failure than about speed
+    public static void recordTest(String testName, String status, long durationMillis) {
+        if ("PASS".equals(status)) {
+            CURRENT_RUN.computeIfAbsent("test:" + testName, k -> new ConcurrentLinkedQueue<>()).add(durationMillis);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        String name = ShardScheduler.itemId(result.getTestClass().getName(), result.getMethod().getMethodName(),
+                ShardWorker.selectedRow);
+        recordTest(name, "PASS", result.getEndMillis() - result.getStartMillis());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!reportToScheduler) {
+            finishRun(DEFAULT_FILE);
+        }
+    }
+
+    // "<value> <key>" for every value recorded in this JVM since the last call, for ShardWorker to report
+    static synchronized List<String> drainRun() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Queue<Long>> current : new TreeMap<>(CURRENT_RUN).entrySet()) {
+            for (long value : current.getValue()) {
+                lines.add(value + " " + current.getKey());
+            }
+        }
+        CURRENT_RUN.clear();
+        return lines;
+    }
+
+    // Called by ShardScheduler for each line a worker reported
+    static void mergeRun(String line) {
+        String[] parts = line.split(" ", 2);
+        CURRENT_RUN.computeIfAbsent(parts[1], k -> new ConcurrentLinkedQueue<>()).add(Long.parseLong(parts[0]));
+    }
+
+    // Appends this run to the history, saves it and reports the keys that got slower
+    public static synchronized List<Regression> finishRun(Path file) {
+        Map<String, long[]> history = load(file);
+        for (Map.Entry<String, Queue<Long>> current : CURRENT_RUN.entrySet()) {
+            append(history, current.getKey(), median(toArray(current.getValue())));
+        }
+        CURRENT_RUN.clear();
+        for (Map.Entry<String, InteractionMetrics.Stats> pageMethod : InteractionMetrics.getPerPageMethod().entrySet()) {
+            LatencyHistogram latency = pageMethod.getValue().latencyNanos;
+            append(history, "page:" + pageMethod.getKey() + ":p50", latency.getValueAtPercentile(50) / 1000);
+            append(history, "page:" + pageMethod.getKey() + ":p95", latency.getValueAtPercentile(95) / 1000);
+        }
+
+        double minShift = Double.parseDouble(PropertyUtils.getProperty("perfRegressionMinShift", "0.10"));
+        List<Regression> regressions = new ArrayList<>();
+        for (Map.Entry<String, long[]> series : history.entrySet()) {
+            Regression regression = detect(series.getKey(), series.getValue(), minShift);
+            if (regression != null) {
+                regressions.add(regression);
+            }
+        }
+        save(file, history);
+        writeReport(regressions);
+        return regressions;
+    }
+
+    private static void append(Map<String, long[]> history, String key, long value) {
+        long[] previous = history.getOrDefault(key, new long[0]);
+        long[] next = Arrays.copyOfRange(previous, Math.max(0, previous.length + 1 - WINDOW), previous.length + 1);
+        next[next.length - 1] = value;
+        history.put(key, next);
+    }
+
+    static Regression detect(String key, long[] series, double minShift) {
+        if (series.length < MIN_BASELINE_RUNS + RECENT_RUNS) {
+            return null;
+        }
+        long[] baseline = Arrays.copyOfRange(series, 0, series.length - RECENT_RUNS);
+        long[] recent = Arrays.copyOfRange(series, series.length - RECENT_RUNS, series.length);
+        long baselineMedian = median(baseline);
+        long recentMedian = median(recent);
+        if (recentMedian < baselineMedian * (1 + minShift)) {
+            return null;
+        }
+        double z = mannWhitneyZ(recent, baseline);
+        return z >= CRITICAL_Z ? new Regression(key, baselineMedian, recentMedian, z) : null;
+    }
+
+    // Normal approximation of the Mann-Whitney U statistic with tie and continuity correction; positive when
+    // values in "sample" tend to be larger than in "reference"
+    static double mannWhitneyZ(long[] sample, long[] reference) {
+        int n1 = sample.length;
+        int n2 = reference.length;
+        int n = n1 + n2;
+        long[][] pooled = new long[n][];
+        for (int i = 0; i < n1; i++) {
+            pooled[i] = new long[]{sample[i], 1};
+        }
+        for (int i = 0; i < n2; i++) {
+            pooled[n1 + i] = new long[]{reference[i], 0};
+        }
+        Arrays.sort(pooled, (a, b) -> Long.compare(a[0], b[0]));
+
+        double sampleRankSum = 0;
+        double tieCorrection = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && pooled[j][0] == pooled[i][0]) {
+                j++;
+            }
+            double averageRank = (i + 1 + j) / 2.0;
+            for (int k = i; k < j; k++) {
+                if (pooled[k][1] == 1) {
+                    sampleRankSum += averageRank;
+                }
+            }
+            double ties = j - i;
+            tieCorrection += ties * ties * ties - ties;
+            i = j;
+        }
+        double u = sampleRankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - tieCorrection / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 0;
+        }
+        return (u - mean - 0.5) / Math.sqrt(variance);
+    }
+
+    static long median(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static long[] toArray(Queue<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public static Map<String, long[]> load(Path file) {
+        Map<String, long[]> history = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return history;
+        }
+        Properties prop = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            prop.load(reader);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return history;
+        }
+        for (String key : prop.stringPropertyNames()) {
+            try {
+                history.put(key, Arrays.stream(prop.getProperty(key).split(",")).mapToLong(Long::parseLong).toArray());
+            } catch (NumberFormatException e) {
+                // ignore a corrupted entry; it is rewritten on the next save
+            }
+        }
+        return history;
+    }
+
+    private static void save(Path file, Map<String, long[]> history) {
+        Properties prop = new Properties();
+        for (Map.Entry<String, long[]> series : history.entrySet()) {
+            StringBuilder values = new StringBuilder();
+            for (long value : series.getValue()) {
+                values.append(values.length() == 0 ? "" : ",").append(value);
+            }
+            prop.setProperty(series.getKey(), values.toString());
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "timing-history", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                prop.store(writer, "Per-run timings, oldest first: tests in ms, page methods in microseconds");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeReport(List<Regression> regressions) {
+        List<Regression> sorted = new ArrayList<>(regressions);
+        Collections.sort(sorted, (a, b) -> Double.compare(b.z, a.z));
+        try {
+            Files.createDirectories(REGRESSION_REPORT.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(REGRESSION_REPORT, StandardCharsets.UTF_8)) {
+                writer.write("key,baselineMedian,recentMedian,z");
+                writer.newLine();
+                for (Regression regression : sorted) {
+                    writer.write("\"" + regression.key.replace("\"", "\"\"") + "\"," + regression.baselineMedian + ","
+                            + regression.recentMedian + "," + String.format("%.2f", regression.z));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.selcuk.ProjectUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Unique test identities without locks or regex: every value is the fork prefix plus a per-fork counter.
+// The prefix is the fork start time and a fork id, each written at a fixed width, so the counter that follows can
+// never be mistaken for part of it and values differ across threads, forks and runs.
+public class UniqueDataGenerator {
+    private static final AtomicLong COUNTER = new AtomicLong();
+    private static final long START_MILLIS = System.currentTimeMillis();
+    private static final long NODE_ID = nodeId();
+    // The same prefix in the two alphabets the fields accept
+    private static final String PREFIX_DIGITS = fixedDigits(START_MILLIS, 13) + fixedDigits(NODE_ID, 8);
+    private static final String PREFIX_LETTERS = fixedLetters(START_MILLIS, 9) + fixedLetters(NODE_ID, 6);
+    private static final String EMAIL_DOMAIN = "@gmail.com";
+    // The storefront accepts up to 32 characters in the telephone field
+    private static final int MAX_TELEPHONE_LENGTH = 32;
+
+    // Surefire and our shard workers both expose a fork number; fall back to the pid plus random bits.
+    // Bit 24 tells the two apart, so a fork number never equals a pid-derived id.
+    private static long nodeId() {
+        String fork = System.getProperty("surefire.forkNumber", System.getProperty("report.workerId"));
+        if (fork != null) {
+            try {
+                return (1L << 24) | (Long.parseLong(fork) & 0xFFF);
+            } catch (NumberFormatException e) {
+                // not numeric, use the pid below
+            }
+        }
+        return ((ProcessHandle.current().pid() & 0xFFFF) << 8) | ThreadLocalRandom.current().nextInt(256);
+    }
+
+    private static String fixedDigits(long value, int width) {
+        String digits = Long.toString(value);
+        if (digits.length() > width) {
+            throw new IllegalStateException(value + " does not fit the " + width + " digits of the unique prefix");
+        }
+        StringBuilder padded = new StringBuilder(width);
+        for (int i = digits.length(); i < width; i++) {
+            padded.append('0');
+        }
+        return padded.append(digits).toString();
+    }
+
+    private static String fixedLetters(long value, int width) {
+        StringBuilder letters = new StringBuilder(width);
+        appendLetters(letters, value);
+        if (letters.length() > width) {
+            throw new IllegalStateException(value + " does not fit the " + width + " letters of the unique prefix");
+        }
+        while (letters.length() < width) {
+            letters.insert(0, 'a');
+        }
+        return letters.toString();
+    }
+
+    public static String generateEmail() {
+        StringBuilder email = new StringBuilder(32).append(PREFIX_LETTERS);
+        appendLetters(email, COUNTER.incrementAndGet());
+        return email.append(EMAIL_DOMAIN).toString();
+    }
+
+    // Letters only, so it passes the name fields' validation
+    public static String generateName(String prefix) {
+        StringBuilder name = new StringBuilder(prefix.length() + 20).append(prefix).append(PREFIX_LETTERS);
+        appendLetters(name, COUNTER.incrementAndGet());
+        return name.toString();
+    }
+
+    public static String generateFirstName() {
+        return generateName("Alex");
+    }
+
+    public static String generateLastName() {
+        return generateName("Browning");
+    }
+
+    // Digits only: the 21-digit prefix followed by the counter
+    public static String generateTelephoneNumber() {
+        String phone = PREFIX_DIGITS + COUNTER.incrementAndGet();
+        if (phone.length() > MAX_TELEPHONE_LENGTH) {
+            throw new IllegalStateException("Unique telephone numbers of this fork are exhausted");
+        }
+        return phone;
+    }
+
+    private static void appendLetters(StringBuilder target, long value) {
+        int start = target.length();
+        do {
+            target.append((char) ('a' + (value % 26)));
+            value /= 26;
+        } while (value > 0);
+        reverse(target, start);
+    }
+
+    private static void reverse(StringBuilder target, int from) {
+        for (int i = from, j = target.length() - 1; i < j; i++, j--) {
+            char c = target.charAt(i);
+            target.setCharAt(i, target.charAt(j));
+            target.setCharAt(j, c);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.selcuk.ProjectUtils;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Build step that turns the named test blocks of a workbook (the layout CommonUtils.getTestData reads: test name row,
+// header row, data rows, blank row) into generated Java classes under com.selcuk.TestData, one per sheet, with a
+// static TestNG @DataProvider per block. Bind it to generate-sources and add the output directory as a test source root.
+// Any schema problem is reported with its sheet and row, and the step exits non-zero so the build stops there.
+// Usage: WorkbookDataCompiler <workbook path relative to user.dir> <output directory> <sheet> [<sheet> ...]
+public class WorkbookDataCompiler {
+    // Keeps each generated method well under the 64 KB bytecode limit
+    private static final int MAX_CELLS_PER_BLOCK = 3000;
+
+    public static class Block {
+        final String name;
+        final int row;
+        final List<String> headers;
+        final List<List<String>> rows = new ArrayList<>();
+
+        Block(String name, int row, List<String> headers) {
+            this.name = name;
+            this.row = row;
+            this.headers = headers;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: WorkbookDataCompiler <workbook> <output directory> <sheet> [<sheet> ...]");
+            System.exit(2);
+        }
+        MyXLSReader reader = new MyXLSReader(args[0]);
+        List<String> errors = new ArrayList<>();
+        Map<String, List<Block>> sheets = new LinkedHashMap<>();
+        for (int i = 2; i < args.length; i++) {
+            if (!reader.isSheetExist(args[i])) {
+                errors.add(args[i] + ": sheet not found in " + args[0]);
+                continue;
+            }
+            sheets.put(args[i], readBlocks(reader, args[i], errors));
+        }
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                System.err.println("Test data error: " + error);
+            }
+            System.exit(1);
+        }
+        Path packageDirectory = Paths.get(args[1], CompiledTestData.GENERATED_PACKAGE.split("\\."));
+        Files.createDirectories(packageDirectory);
+        for (Map.Entry<String, List<Block>> sheet : sheets.entrySet()) {
+            Path source = packageDirectory.resolve(CompiledTestData.className(sheet.getKey()) + ".java");
+            writeSource(source, args[0], sheet.getKey(), sheet.getValue());
+            System.out.println("Compiled " + sheet.getValue().size() + " test blocks of sheet " + sheet.getKey() + " into " + source);
+        }
+    }
+
+    public static List<Block> readBlocks(MyXLSReader reader, String sheet, List<String> errors) {
+        List<Block> blocks = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        Set<String> methods = new HashSet<>();
+        int lastRow = reader.getRowCount(sheet);
+        int row = 1;
+        while (row <= lastRow) {
+            String name = cell(reader, sheet, 1, row, errors);
+            if (name.isEmpty()) {
+                row++;
+                continue;
+            }
+            String where = sheet + " row " + row + " (" + name + ")";
+            if (!names.add(name)) {
+                errors.add(where + ": duplicate test name; getTestData would only ever return the first block");
+            }
+            if (!methods.add(methodName(name))) {
+                errors.add(where + ": test name maps to the same Java identifier as another block");
+            }
+            if (!cell(reader, sheet, 2, row, errors).isEmpty()) {
+                errors.add(where + ": test name row has more than one cell");
+            }
+
+            List<String> headers = new ArrayList<>();
+            for (int column = 1; ; column++) {
+                String header = cell(reader, sheet, column, row + 1, errors);
+                if (header.isEmpty()) {
+                    break;
+                }
+                if (headers.contains(header)) {
+                    errors.add(where + ": duplicate column '" + header + "'");
+                }
+                headers.add(header);
+            }
+            if (headers.isEmpty()) {
+                errors.add(where + ": no header row below the test name");
+                row += 2;
+                continue;
+            }
+
+            Block block = new Block(name, row, headers);
+            int dataRow = row + 2;
+            for (; !cell(reader, sheet, 1, dataRow, errors).isEmpty(); dataRow++) {
+                List<String> values = new ArrayList<>(headers.size());
+                for (int column = 1; column <= headers.size(); column++) {
+                    values.add(cell(reader, sheet, column, dataRow, errors));
+                }
+                if (!cell(reader, sheet, headers.size() + 1, dataRow, errors).isEmpty()) {
+                    errors.add(sheet + " row " + dataRow + ": value beyond the last header of " + name);
+                }
+                block.rows.add(values);
+            }
+            if (block.rows.isEmpty()) {
+                errors.add(where + ": no data rows");
+            }
+            if (block.rows.size() * headers.size() > MAX_CELLS_PER_BLOCK) {
+                errors.add(where + ": more than " + MAX_CELLS_PER_BLOCK + " cells; split the block");
+            }
+            blocks.add(block);
+            row = dataRow;
+        }
+        return blocks;
+    }
+
+    private static String cell(MyXLSReader reader, String sheet, int column, int row, List<String> errors) {
+        String value = reader.getCellData(sheet, column, row);
+        // getCellData reports unreadable cells in-band instead of throwing
+        if (value.endsWith("does not exist  in xls")) {
+            errors.add(sheet + " row " + row + " column " + column + ": unreadable cell");
+            return "";
+        }
+        return value;
+    }
+
+    static String methodName(String testName) {
+        String identifier = CompiledTestData.identifier(testName);
+        return SourceVersion.isKeyword(identifier) || identifier.equals("get") || identifier.equals("toMaps")
+                ? identifier + "Data" : identifier;
+    }
+
+    private static void writeSource(Path source, String workbook, String sheet, List<Block> blocks) throws IOException {
+        String className = CompiledTestData.className(sheet);
+        StringBuilder java = new StringBuilder();
+        java.append("// Generated by WorkbookDataCompiler from ").append(comment(workbook.replace("\\", "/")))
+                .append(", sheet ").append(comment(sheet)).append(". Do not edit; change the workbook instead.\n");
+        java.append("package ").append(CompiledTestData.GENERATED_PACKAGE).append(";\n\n");
+        java.append("import org.testng.annotations.DataProvider;\n\n");
+        java.append("import java.util.HashMap;\n\n");
+        java.append("public final class ").append(className).append(" {\n");
+        java.append("    private ").append(className).append("() {\n    }\n");
+        for (Block block : blocks) {
+            java.append("\n    // ").append(comment(sheet)).append(" row ").append(block.row).append('\n');
+            java.append("    @DataProvider(name = ").append(literal(block.name)).append(")\n");
+            java.append("    public static Object[][] ").append(methodName(block.name)).append("() {\n");
+            java.append("        return toMaps(new String[]{");
+            appendList(java, block.headers);
+            java.append("}, new String[][]{\n");
+            for (List<String> values : block.rows) {
+                java.append("                {");
+                appendList(java, values);
+                java.append("},\n");
+            }
+            java.append("        });\n    }\n");
+        }
+        java.append("\n    public static Object[][] get(String testName) {\n");
+        java.append("        switch (testName) {\n");
+        for (Block block : blocks) {
+            java.append("            case ").append(literal(block.name)).append(":\n");
+            java.append("                return ").append(methodName(block.name)).append("();\n");
+        }
+        java.append("            default:\n                return null;\n        }\n    }\n");
+        java.append("\n    // Fresh maps on every call, as getTestData returns, so a test changing its row cannot affect another\n");
+        java.append("    private static Object[][] toMaps(String[] headers, String[][] rows) {\n");
+        java.append("        Object[][] data = new Object[rows.length][1];\n");
+        java.append("        for (int i = 0; i < rows.length; i++) {\n");
+        java.append("            HashMap<String, String> map = new HashMap<>();\n");
+        java.append("            for (int j = 0; j < headers.length; j++) {\n");
+        java.append("                map.put(headers[j], rows[i][j]);\n");
+        java.append("            }\n");
+        java.append("            data[i][0] = map;\n");
+        java.append("        }\n");
+        java.append("        return data;\n");
+        java.append("    }\n}\n");
+
+        Path temp = Files.createTempFile(source.getParent(), className, ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.US_ASCII)) {
+            writer.write(java.toString());
+        }
+        Files.move(temp, source, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void appendList(StringBuilder java, List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            java.append(i == 0 ? "" : ", ").append(literal(values.get(i)));
+        }
+    }
+
+    private static String comment(String text) {
+        return text.replaceAll("[^\\x20-\\x7e]", "?");
+    }
+
+    // Sources stay ASCII; everything else is written as a unicode escape
+    static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 32 || c > 126) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.selcuk.Benchmarks;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import javax.activation.DataHandler;
+import javax.imageio.ImageIO;
+import javax.mail.Message;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import javax.mail.util.ByteArrayDataSource;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.Random;
+
+// Fixture files for the benchmarks. Paths returned are relative to user.dir, the way MyXLSReader expects them.
+public class BenchmarkFixtures {
+    public static final String SHIPPED_WORKBOOK = "/src/test/resources/TutorialsNinja Web Application - Test Cases (Complete and Final) (1).xlsx";
+    public static final String DATA_SHEET = "Data";
+    public static final String FIXTURE_DIRECTORY = "/target/benchmark-fixtures";
+
+    // Lays out testBlocks blocks in the getTestData format: name row, header row, rowsPerBlock data rows, blank row.
+    // The block named "lastTest" comes last, so lookups scan the whole sheet.
+    public static String generateDataWorkbook(int testBlocks, int rowsPerBlock, int columns) throws IOException {
+        String relativePath = FIXTURE_DIRECTORY + "/data-" + testBlocks + "x" + rowsPerBlock + "x" + columns + ".xlsx";
+        Path file = Paths.get(System.getProperty("user.dir") + relativePath);
+        if (Files.exists(file)) {
+            return relativePath;
+        }
+        Files.createDirectories(file.getParent());
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet(DATA_SHEET);
+            int rowNumber = 0;
+            for (int block = 0; block < testBlocks; block++) {
+                String testName = block == testBlocks - 1 ? "lastTest" : "test" + block;
+                sheet.createRow(rowNumber++).createCell(0).setCellValue(testName);
+                Row header = sheet.createRow(rowNumber++);
+                for (int column = 0; column < columns; column++) {
+                    header.createCell(column).setCellValue("column" + column);
+                }
+                for (int dataRow = 0; dataRow < rowsPerBlock; dataRow++) {
+                    Row row = sheet.createRow(rowNumber++);
+                    for (int column = 0; column < columns; column++) {
+                        row.createCell(column).setCellValue("value-" + block + "-" + dataRow + "-" + column);
+                    }
+                }
+                rowNumber++;
+            }
+            try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+                workbook.write(out);
+            }
+        }
+        return relativePath;
+    }
+
+    // Two screenshots of the same size that differ in one small rectangle
+    public static String[] generateScreenshotPair(int width, int height) throws IOException {
+        Path directory = Paths.get(System.getProperty("user.dir") + FIXTURE_DIRECTORY);
+        Files.createDirectories(directory);
+        File expected = directory.resolve("expected-" + width + "x" + height + ".png").toFile();
+        File actual = directory.resolve("actual-" + width + "x" + height + ".png").toFile();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.DARK_GRAY);
+        for (int y = 40; y < height; y += 60) {
+            graphics.fillRect(40, y, width - 80, 20);
+        }
+        ImageIO.write(image, "png", expected);
+        graphics.setColor(Color.RED);
+        graphics.fillRect(width / 2, height / 2, 30, 10);
+        graphics.dispose();
+        ImageIO.write(image, "png", actual);
+        return new String[]{actual.getPath(), expected.getPath()};
+    }
+
+    // A password-reset style mail: text and HTML alternatives plus a binary attachment of attachmentBytes
+    public static Message generateResetMail(int attachmentBytes) throws Exception {
+        Session session = Session.getInstance(new Properties());
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("shop@tutorialsninja.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("user@example.com"));
+        message.setSubject("Password reset request");
+
+        String link = "https://tutorialsninja.com/demo/index.php?route=account/reset&code=abc123def456";
+        MimeBodyPart text = new MimeBodyPart();
+        text.setText("A new password was requested.\nTo reset your password click on the link below:\n" + link + "\n", "utf-8");
+        MimeBodyPart html = new MimeBodyPart();
+        html.setContent("<p>A new password was requested.</p><p><a href=\"" + link + "\">" + link + "</a></p>", "text/html; charset=utf-8");
+        MimeMultipart alternative = new MimeMultipart("alternative");
+        alternative.addBodyPart(text);
+        alternative.addBodyPart(html);
+        MimeBodyPart alternativePart = new MimeBodyPart();
+        alternativePart.setContent(alternative);
+
+        MimeBodyPart attachment = new MimeBodyPart();
+        byte[] payload = new byte[attachmentBytes];
+        new Random(42).nextBytes(payload);
+        attachment.setDataHandler(new DataHandler(new ByteArrayDataSource(payload, "application/octet-stream")));
+        attachment.setFileName("invoice.bin");
+
+        MimeMultipart mixed = new MimeMultipart("mixed");
+        mixed.addBodyPart(alternativePart);
+        mixed.addBodyPart(attachment);
+        message.setContent(mixed);
+        message.saveChanges();
+
+        // Round-trip through bytes so the benchmark parses a message the way one arrives from a mail server
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        message.writeTo(raw);
+        return new MimeMessage(session, new ByteArrayInputStream(raw.toByteArray()));
+    }
+}
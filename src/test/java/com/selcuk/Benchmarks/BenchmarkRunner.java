@@ -0,0 +1,21 @@
+package com.selcuk.Benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+// Runs every benchmark in this package, or only those matching the first argument, and writes JSON results
+// to target/jmh-results.json so runs can be compared with each other.
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("user.dir") + "/target/jmh-results.json")
+                .build();
+        new Runner(options).run();
+    }
+}
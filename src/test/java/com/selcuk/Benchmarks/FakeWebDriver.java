@@ -0,0 +1,454 @@
+package com.selcuk.Benchmarks;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.Logs;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process WebDriver that answers every command immediately after a configurable delay, standing in for the
+// HTTP round-trip to a local driver or a remote grid. Every command, on the driver or an element, is counted.
+// Navigation, windows, frames, alerts, timeouts and screenshots are modelled just far enough to answer consistently.
+public class FakeWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot {
+    // A valid 1x1 PNG, so screenshot consumers can decode and hash it
+    static final String SCREENSHOT_BASE64 =
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==";
+
+    private final long latencyNanos;
+    private final int listSize;
+    private final AtomicLong commands = new AtomicLong();
+    private final Deque<String> back = new ArrayDeque<>();
+    private final Deque<String> forward = new ArrayDeque<>();
+    private final Set<Cookie> cookies = new HashSet<>();
+    private String currentUrl = "about:blank";
+    private Dimension windowSize = new Dimension(1366, 768);
+    private Point windowPosition = new Point(0, 0);
+    private Duration implicitWait = Duration.ZERO;
+    private Duration scriptTimeout = Duration.ofSeconds(30);
+    private Duration pageLoadTimeout = Duration.ofSeconds(300);
+
+    public FakeWebDriver(long latencyNanos, int listSize) {
+        this.latencyNanos = latencyNanos;
+        this.listSize = listSize;
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    public void resetCommandCount() {
+        commands.set(0);
+    }
+
+    void roundTrip() {
+        commands.incrementAndGet();
+        if (latencyNanos <= 0) {
+            return;
+        }
+        // Parking is too coarse for sub-50 microsecond delays, so short ones spin instead
+        if (latencyNanos < 50_000) {
+            long end = System.nanoTime() + latencyNanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        } else {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+
+    @Override
+    public void get(String url) {
+        roundTrip();
+        back.push(currentUrl);
+        forward.clear();
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        roundTrip();
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        roundTrip();
+        return "Fake";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        roundTrip();
+        List<WebElement> elements = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            elements.add(new FakeWebElement(this, by + "[" + i + "]"));
+        }
+        return elements;
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        roundTrip();
+        return new FakeWebElement(this, by.toString());
+    }
+
+    @Override
+    public String getPageSource() {
+        roundTrip();
+        return "<html></html>";
+    }
+
+    @Override
+    public void close() {
+        roundTrip();
+    }
+
+    @Override
+    public void quit() {
+        roundTrip();
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        roundTrip();
+        return Collections.singleton("fake-window");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        roundTrip();
+        return "fake-window";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return new TargetLocator() {
+            @Override
+            public WebDriver frame(int index) {
+                roundTrip();
+                return FakeWebDriver.this;
+            }
+
+            @Override
+            public WebDriver frame(String nameOrId) {
+                roundTrip();
+                return FakeWebDriver.this;
+            }
+
+            @Override
+            public WebDriver frame(WebElement frameElement) {
+                roundTrip();
+                return FakeWebDriver.this;
+            }
+
+            @Override
+            public WebDriver parentFrame() {
+                roundTrip();
+                return FakeWebDriver.this;
+            }
+
+            @Override
+            public WebDriver window(String nameOrHandle) {
+                roundTrip();
+                return FakeWebDriver.this;
+            }
+
+            @Override
+            public WebDriver newWindow(WindowType typeHint) {
+                roundTrip();
+                return FakeWebDriver.this;
+            }
+
+            @Override
+            public WebDriver defaultContent() {
+                roundTrip();
+                return FakeWebDriver.this;
+            }
+
+            @Override
+            public WebElement activeElement() {
+                roundTrip();
+                return new FakeWebElement(FakeWebDriver.this, "activeElement");
+            }
+
+            @Override
+            public Alert alert() {
+                roundTrip();
+                return new Alert() {
+                    @Override
+                    public void dismiss() {
+                        roundTrip();
+                    }
+
+                    @Override
+                    public void accept() {
+                        roundTrip();
+                    }
+
+                    @Override
+                    public String getText() {
+                        roundTrip();
+                        return "Fake alert";
+                    }
+
+                    @Override
+                    public void sendKeys(String keysToSend) {
+                        roundTrip();
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Navigation navigate() {
+        return new Navigation() {
+            @Override
+            public void back() {
+                roundTrip();
+                if (!back.isEmpty()) {
+                    forward.push(currentUrl);
+                    currentUrl = back.pop();
+                }
+            }
+
+            @Override
+            public void forward() {
+                roundTrip();
+                if (!forward.isEmpty()) {
+                    back.push(currentUrl);
+                    currentUrl = forward.pop();
+                }
+            }
+
+            @Override
+            public void to(String url) {
+                get(url);
+            }
+
+            @Override
+            public void to(URL url) {
+                get(url.toString());
+            }
+
+            @Override
+            public void refresh() {
+                roundTrip();
+            }
+        };
+    }
+
+    @Override
+    public Options manage() {
+        return new Options() {
+            @Override
+            public void addCookie(Cookie cookie) {
+                roundTrip();
+                cookies.add(cookie);
+            }
+
+            @Override
+            public void deleteCookieNamed(String name) {
+                roundTrip();
+                cookies.removeIf(cookie -> cookie.getName().equals(name));
+            }
+
+            @Override
+            public void deleteCookie(Cookie cookie) {
+                roundTrip();
+                cookies.remove(cookie);
+            }
+
+            @Override
+            public void deleteAllCookies() {
+                roundTrip();
+                cookies.clear();
+            }
+
+            @Override
+            public Set<Cookie> getCookies() {
+                roundTrip();
+                return new HashSet<>(cookies);
+            }
+
+            @Override
+            public Cookie getCookieNamed(String name) {
+                roundTrip();
+                return cookies.stream().filter(cookie -> cookie.getName().equals(name)).findFirst().orElse(null);
+            }
+
+            @Override
+            public Timeouts timeouts() {
+                return new FakeTimeouts();
+            }
+
+            @Override
+            public Window window() {
+                return new Window() {
+                    @Override
+                    public Dimension getSize() {
+                        roundTrip();
+                        return windowSize;
+                    }
+
+                    @Override
+                    public void setSize(Dimension targetSize) {
+                        roundTrip();
+                        windowSize = targetSize;
+                    }
+
+                    @Override
+                    public Point getPosition() {
+                        roundTrip();
+                        return windowPosition;
+                    }
+
+                    @Override
+                    public void setPosition(Point targetPosition) {
+                        roundTrip();
+                        windowPosition = targetPosition;
+                    }
+
+                    @Override
+                    public void maximize() {
+                        roundTrip();
+                    }
+
+                    @Override
+                    public void minimize() {
+                        roundTrip();
+                    }
+
+                    @Override
+                    public void fullscreen() {
+                        roundTrip();
+                    }
+                };
+            }
+
+            @Override
+            public Logs logs() {
+                return new Logs() {
+                    @Override
+                    public LogEntries get(String logType) {
+                        roundTrip();
+                        return new LogEntries(Collections.emptyList());
+                    }
+
+                    @Override
+                    public Set<String> getAvailableLogTypes() {
+                        roundTrip();
+                        return Collections.emptySet();
+                    }
+                };
+            }
+        };
+    }
+
+    // Only the Duration overloads are live in Selenium 4; the deprecated TimeUnit ones are required by the interface
+    private class FakeTimeouts implements Timeouts {
+        @Override
+        public Timeouts implicitlyWait(Duration duration) {
+            roundTrip();
+            implicitWait = duration;
+            return this;
+        }
+
+        @Override
+        public Duration getImplicitWaitTimeout() {
+            return implicitWait;
+        }
+
+        @Override
+        public Timeouts scriptTimeout(Duration duration) {
+            roundTrip();
+            scriptTimeout = duration;
+            return this;
+        }
+
+        @Override
+        public Duration getScriptTimeout() {
+            return scriptTimeout;
+        }
+
+        @Override
+        public Timeouts pageLoadTimeout(Duration duration) {
+            roundTrip();
+            pageLoadTimeout = duration;
+            return this;
+        }
+
+        @Override
+        public Duration getPageLoadTimeout() {
+            return pageLoadTimeout;
+        }
+
+        @Override
+        @Deprecated
+        public Timeouts implicitlyWait(long time, TimeUnit unit) {
+            return implicitlyWait(Duration.ofNanos(unit.toNanos(time)));
+        }
+
+        @Override
+        @Deprecated
+        public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+            return scriptTimeout(Duration.ofNanos(unit.toNanos(time)));
+        }
+
+        @Override
+        @Deprecated
+        public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+            return pageLoadTimeout(Duration.ofNanos(unit.toNanos(time)));
+        }
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        roundTrip();
+        return target.convertFromBase64Png(SCREENSHOT_BASE64);
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        roundTrip();
+        // DomSnapshot's capture passes a map of locators; answer it as findElement would, so snapshot and live reads agree
+        if (args.length == 1 && args[0] instanceof Map) {
+            Map<String, Object> nodes = new HashMap<>();
+            for (Object locator : ((Map<?, ?>) args[0]).keySet()) {
+                nodes.put(String.valueOf(locator),
+                        Map.of("displayed", true, "text", String.valueOf(locator), "attributes", Map.of()));
+            }
+            return nodes;
+        }
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        roundTrip();
+        return null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.selcuk.Benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+// Element of FakeWebDriver: always displayed and enabled, text is its locator, and every call is one round-trip
+public class FakeWebElement implements WebElement {
+    private final FakeWebDriver driver;
+    private final String locator;
+    private boolean selected;
+    private String value = "";
+
+    FakeWebElement(FakeWebDriver driver, String locator) {
+        this.driver = driver;
+        this.locator = locator;
+    }
+
+    @Override
+    public void click() {
+        driver.roundTrip();
+        selected = !selected;
+    }
+
+    @Override
+    public void submit() {
+        driver.roundTrip();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        driver.roundTrip();
+        StringBuilder text = new StringBuilder(value);
+        for (CharSequence keys : keysToSend) {
+            text.append(keys);
+        }
+        value = text.toString();
+    }
+
+    @Override
+    public void clear() {
+        driver.roundTrip();
+        value = "";
+    }
+
+    @Override
+    public String getTagName() {
+        driver.roundTrip();
+        return "input";
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        driver.roundTrip();
+        return "value".equals(name) ? value : "";
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        driver.roundTrip();
+        return name;
+    }
+
+    // Abstract but deprecated in WebElement; the framework itself only uses getDomAttribute and getDomProperty
+    @Override
+    @Deprecated
+    public String getAttribute(String name) {
+        driver.roundTrip();
+        return "value".equals(name) ? value : name;
+    }
+
+    @Override
+    public boolean isSelected() {
+        driver.roundTrip();
+        return selected;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        driver.roundTrip();
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        driver.roundTrip();
+        return locator;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return driver.findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return driver.findElement(by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        driver.roundTrip();
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        driver.roundTrip();
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        driver.roundTrip();
+        return new Dimension(100, 20);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        driver.roundTrip();
+        return new Rectangle(0, 0, 20, 100);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        driver.roundTrip();
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        driver.roundTrip();
+        return target.convertFromBase64Png(FakeWebDriver.SCREENSHOT_BASE64);
+    }
+
+    @Override
+    public String toString() {
+        return "[FakeWebDriver -> " + (locator.startsWith("By.") ? locator.substring(3) : locator) + "]";
+    }
+}
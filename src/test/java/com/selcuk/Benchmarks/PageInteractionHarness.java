@@ -0,0 +1,87 @@
+package com.selcuk.Benchmarks;
+
+import com.selcuk.FrameworkPages.pageObjects.RegisterPage;
+import com.selcuk.ProjectUtils.ElementUtilities;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Drives RegisterPage and ElementUtilities against FakeWebDriver and prints, per flow and per simulated latency,
+// how many WebDriver commands one run of the flow issues and how long it takes.
+// Arguments: latencies in microseconds (default 0,200,2000), list size for getTextOfElements (default 500).
+public class PageInteractionHarness {
+    private static final int WARMUP_RUNS = 20;
+    private static final long TARGET_NANOS_PER_FLOW = 1_000_000_000L;
+
+    public static void main(String[] args) {
+        String[] latencies = (args.length > 0 ? args[0] : "0,200,2000").split(",");
+        int listSize = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        Map<String, Consumer<FakeWebDriver>> flows = new LinkedHashMap<>();
+        flows.put("registeringAnAccount", driver -> new RegisterPage(driver)
+                .registeringAnAccount("Alex", "Browning", "alex@example.com", "1234567890", "12345"));
+        flows.put("registerPageWarnings", driver -> {
+            RegisterPage registerPage = new RegisterPage(driver);
+            registerPage.getFirstNameWarning();
+            registerPage.getLastNameWarning();
+            registerPage.getEmailWarning();
+            registerPage.getTelephoneWarning();
+            registerPage.getPasswordWarning();
+            registerPage.getPasswordConfirmationWarning();
+        });
+        flows.put("getAllFieldWarnings", driver -> new RegisterPage(driver).getAllFieldWarnings());
+        flows.put("getTextOfElements(" + listSize + ")", driver -> {
+            List<WebElement> items = driver.findElements(By.cssSelector(".product-thumb h4 a"));
+            ElementUtilities.getTextOfElements(items);
+        });
+        flows.put("waitAndCheckElementDisplayStatus", driver ->
+                ElementUtilities.waitAndCheckElementDisplayStatus(driver.findElement(By.id("input-firstname")), 5));
+        flows.put("waitForElementAndClick", driver ->
+                ElementUtilities.waitForElementAndClick(driver.findElement(By.xpath("//input[@value='Continue']")), 5));
+
+        System.out.printf("%-36s %12s %14s %14s%n", "flow", "latency(us)", "commands/run", "ms/run");
+        for (String latency : latencies) {
+            long latencyNanos = Long.parseLong(latency.trim()) * 1000;
+            for (Map.Entry<String, Consumer<FakeWebDriver>> flow : flows.entrySet()) {
+                FakeWebDriver driver = new FakeWebDriver(latencyNanos, listSize);
+                new ElementUtilities(driver);
+                Result result = measure(driver, flow.getValue());
+                System.out.printf("%-36s %12d %14d %14.3f%n", flow.getKey(), latencyNanos / 1000,
+                        result.commandsPerRun, result.nanosPerRun / 1e6);
+            }
+        }
+    }
+
+    private static Result measure(FakeWebDriver driver, Consumer<FakeWebDriver> flow) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            flow.accept(driver);
+        }
+        // One timed run decides how many runs fit in the time budget, so slow profiles still finish quickly
+        driver.resetCommandCount();
+        long start = System.nanoTime();
+        flow.accept(driver);
+        long single = Math.max(1, System.nanoTime() - start);
+        long commandsPerRun = driver.getCommandCount();
+        int runs = (int) Math.max(1, Math.min(100_000, TARGET_NANOS_PER_FLOW / single));
+
+        start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            flow.accept(driver);
+        }
+        return new Result(commandsPerRun, (double) (System.nanoTime() - start) / runs);
+    }
+
+    private static class Result {
+        final long commandsPerRun;
+        final double nanosPerRun;
+
+        Result(long commandsPerRun, double nanosPerRun) {
+            this.commandsPerRun = commandsPerRun;
+            this.nanosPerRun = nanosPerRun;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.selcuk.Benchmarks;
+
+import com.selcuk.ProjectUtils.CommonUtils;
+import com.selcuk.ProjectUtils.PropertyUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.mail.Message;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UtilityBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Screenshots {
+        @Param({"1366x768"})
+        String size;
+
+        String actualPath;
+        String expectedPath;
+
+        @Setup(Level.Trial)
+        public void generate() throws Exception {
+            String[] dimensions = size.split("x");
+            String[] paths = BenchmarkFixtures.generateScreenshotPair(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+            actualPath = paths[0];
+            expectedPath = paths[1];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Mail {
+        @Param({"0", "1048576"})
+        int attachmentBytes;
+
+        Message message;
+
+        @Setup(Level.Trial)
+        public void generate() throws Exception {
+            message = BenchmarkFixtures.generateResetMail(attachmentBytes);
+        }
+    }
+
+    @Benchmark
+    public boolean compareTwoScreenshots(Screenshots screenshots) {
+        return CommonUtils.compareTwoScreenshots(screenshots.actualPath, screenshots.expectedPath);
+    }
+
+    @Benchmark
+    public String generateBrandNewEmail() {
+        return CommonUtils.generateBrandNewEmail();
+    }
+
+    // Contended case: parallel registrations all generating emails at once
+    @Benchmark
+    @Threads(8)
+    public String generateBrandNewEmailContended() {
+        return CommonUtils.generateBrandNewEmail();
+    }
+
+    @Benchmark
+    public String getTextFromMessage(Mail mail) throws Exception {
+        return CommonUtils.getTextFromMessage(mail.message);
+    }
+
+    @Benchmark
+    public String getPasswordResetLinkFromMessage(Mail mail) throws Exception {
+        return CommonUtils.getPasswordResetLinkFromMessage(mail.message);
+    }
+
+    @Benchmark
+    public Properties loadPropertiesFile() {
+        return PropertyUtils.loadPropertiesFile();
+    }
+
+    @Benchmark
+    public String getProperty() {
+        return PropertyUtils.getProperty("appURL");
+    }
+
+    // Cost of the first read, which is what every call paid before the snapshot was cached
+    @Benchmark
+    public String reloadAndGetProperty() {
+        PropertyUtils.reload();
+        return PropertyUtils.getProperty("appURL");
+    }
+}
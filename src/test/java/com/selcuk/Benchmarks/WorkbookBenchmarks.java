@@ -0,0 +1,81 @@
+package com.selcuk.Benchmarks;
+
+import com.selcuk.ProjectUtils.CommonUtils;
+import com.selcuk.ProjectUtils.MyXLSReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkbookBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class ShippedWorkbook {
+        MyXLSReader reader;
+
+        @Setup(Level.Trial)
+        public void open() {
+            reader = new MyXLSReader(BenchmarkFixtures.SHIPPED_WORKBOOK);
+        }
+    }
+
+    // The shipped workbook holds test-case documentation, not getTestData blocks, so getTestData runs on generated ones
+    @State(Scope.Benchmark)
+    public static class GeneratedWorkbook {
+        @Param({"10", "100", "1000"})
+        int testBlocks;
+
+        @Param({"5"})
+        int rowsPerBlock;
+
+        @Param({"8"})
+        int columns;
+
+        MyXLSReader reader;
+
+        @Setup(Level.Trial)
+        public void open() throws Exception {
+            reader = new MyXLSReader(BenchmarkFixtures.generateDataWorkbook(testBlocks, rowsPerBlock, columns));
+        }
+    }
+
+    @Benchmark
+    public String getCellDataByColumnName(ShippedWorkbook workbook) {
+        return workbook.reader.getCellData("Register", "Test Case Title", 20);
+    }
+
+    @Benchmark
+    public String getCellDataByColumnNumber(ShippedWorkbook workbook) {
+        return workbook.reader.getCellData("Register", 3, 20);
+    }
+
+    @Benchmark
+    public Object[][] getTestDataFirstBlock(GeneratedWorkbook workbook) {
+        return CommonUtils.getTestData(workbook.reader, "test0", BenchmarkFixtures.DATA_SHEET);
+    }
+
+    @Benchmark
+    public Object[][] getTestDataLastBlock(GeneratedWorkbook workbook) {
+        return CommonUtils.getTestData(workbook.reader, "lastTest", BenchmarkFixtures.DATA_SHEET);
+    }
+
+    @Benchmark
+    public MyXLSReader openShippedWorkbook() {
+        return new MyXLSReader(BenchmarkFixtures.SHIPPED_WORKBOOK);
+    }
+}
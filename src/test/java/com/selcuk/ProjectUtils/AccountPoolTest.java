@@ -0,0 +1,83 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AccountPoolTest {
+
+    private static void awaitAvailable(AccountPool pool, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.getAvailableCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(pool.getAvailableCount(), count);
+    }
+
+    @Test(timeOut = 10_000)
+    public void refillsWhileAccountsAreLeased() throws InterruptedException {
+        try (AccountPool pool = new AccountPool(account -> true, "secret", 2, 2).start()) {
+            awaitAvailable(pool, 2);
+
+            TestAccount first = pool.lease(1_000);
+            TestAccount second = pool.lease(1_000);
+
+            Assert.assertNotNull(first);
+            Assert.assertNotNull(second);
+            Assert.assertEquals(pool.getLeasedCount(), 2);
+            awaitAvailable(pool, 2);
+        }
+    }
+
+    @Test(timeOut = 10_000)
+    public void retriesFailedProvisionsWithFreshAccounts() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        AccountPool.AccountProvisioner failsTwice = account -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt == 1) {
+                throw new IllegalStateException("registration page did not load");
+            }
+            return attempt == 3;
+        };
+        try (AccountPool pool = new AccountPool(failsTwice, "secret", 1, 1).start()) {
+            awaitAvailable(pool, 1);
+            Assert.assertEquals(attempts.get(), 3);
+        }
+    }
+
+    @Test(timeOut = 10_000)
+    public void givesUpAfterMaxAttempts() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        try (AccountPool pool = new AccountPool(account -> attempts.incrementAndGet() < 0, "secret", 1, 1).start()) {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (attempts.get() < AccountPool.MAX_ATTEMPTS && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+            Assert.assertEquals(attempts.get(), AccountPool.MAX_ATTEMPTS);
+            Assert.assertEquals(pool.getAvailableCount(), 0);
+        }
+    }
+
+    @Test(timeOut = 10_000)
+    public void closeReleasesTheProvisioner() {
+        AtomicBoolean released = new AtomicBoolean();
+        AccountPool.AccountProvisioner provisioner = new AccountPool.AccountProvisioner() {
+            @Override
+            public boolean provision(TestAccount account) {
+                return true;
+            }
+
+            @Override
+            public void close() {
+                released.set(true);
+            }
+        };
+
+        new AccountPool(provisioner, "secret", 1, 1).start().close();
+
+        Assert.assertTrue(released.get());
+    }
+}
@@ -0,0 +1,48 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncElementUtilitiesTest {
+
+    @Test(timeOut = 10_000)
+    public void callsOfOneSessionRunOneAtATime() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostAtOnce = new AtomicInteger();
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int index = i;
+            calls.add(AsyncElementUtilities.supplyAsync(() -> {
+                mostAtOnce.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return index;
+            }));
+        }
+
+        Assert.assertEquals(AsyncElementUtilities.allOf(calls).join(), List.of(0, 1, 2, 3, 4, 5, 6, 7));
+        Assert.assertEquals(mostAtOnce.get(), 1);
+    }
+
+    @Test(timeOut = 10_000)
+    public void callsOfOtherSessionsAreNotHeldUp() throws Exception {
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        CompletableFuture<Object> held = AsyncElementUtilities.supplyAsync(blocker::join);
+
+        String other = CompletableFuture.supplyAsync(() -> AsyncElementUtilities.supplyAsync(() -> "other session").join()).get();
+
+        Assert.assertEquals(other, "other session");
+        Assert.assertFalse(held.isDone());
+        blocker.complete(null);
+        held.join();
+    }
+}
@@ -0,0 +1,174 @@
+package com.selcuk.ProjectUtils;
+
+import com.selcuk.Benchmarks.FakeWebDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ContextBoundDriverTest {
+    private RecordingDriver raw;
+    private RecordingBrowser browser;
+
+    // Remembers what reached the browser, so the tests can see what a context unwrapped and where it navigated
+    static class RecordingDriver extends FakeWebDriver {
+        final List<Object> scriptArguments = new ArrayList<>();
+        int quits;
+
+        RecordingDriver() {
+            super(0, 2);
+        }
+
+        @Override
+        public Object executeScript(String script, Object... args) {
+            scriptArguments.addAll(List.of(args));
+            return super.executeScript(script, args);
+        }
+
+        @Override
+        public void quit() {
+            quits++;
+            super.quit();
+        }
+    }
+
+    // The BiDi commands are replaced by records; everything else runs on the fake session
+    static class RecordingBrowser extends SharedBrowser {
+        final List<String> navigations = new ArrayList<>();
+        final List<String> closed = new ArrayList<>();
+
+        RecordingBrowser(WebDriver driver) {
+            super(driver, new Dimension(1366, 768));
+        }
+
+        WebDriver open(String userContext) {
+            return ContextBoundDriver.create(this, userContext, userContext + "-tab");
+        }
+
+        @Override
+        void navigate(String handle, String url) {
+            navigations.add(handle + " " + url);
+        }
+
+        @Override
+        void traverseHistory(String handle, long delta) {
+            navigations.add(handle + " " + delta);
+        }
+
+        @Override
+        void reload(String handle) {
+            navigations.add(handle + " reload");
+        }
+
+        @Override
+        void closeContext(String userContext, String handle) {
+            closed.add(userContext + " " + handle);
+        }
+    }
+
+    @BeforeMethod
+    public void createBrowser() {
+        raw = new RecordingDriver();
+        browser = new RecordingBrowser(raw);
+    }
+
+    @Test
+    public void elementsComeBackBoundAndAreUnwrappedOnTheWayIn() {
+        WebDriver context = browser.open("user-1");
+
+        WebElement element = context.findElement(By.id("input-firstname"));
+        List<WebElement> elements = context.findElements(By.cssSelector("h4 a"));
+        ((JavascriptExecutor) context).executeScript("return arguments[0];", element, elements.get(1));
+
+        Assert.assertTrue(element instanceof WrapsElement);
+        Assert.assertFalse(((WrapsElement) element).getWrappedElement() instanceof WrapsElement);
+        Assert.assertEquals(elements.size(), 2);
+        Assert.assertEquals(raw.scriptArguments, List.of(((WrapsElement) element).getWrappedElement(),
+                ((WrapsElement) elements.get(1)).getWrappedElement()));
+        Assert.assertSame(context.switchTo().defaultContent(), context);
+    }
+
+    @Test
+    public void boundElementsEqualTheElementTheyWrap() {
+        WebDriver context = browser.open("user-1");
+        WebElement element = context.findElement(By.id("input-firstname"));
+        WebElement wrapped = ((WrapsElement) element).getWrappedElement();
+
+        Assert.assertTrue(element.equals(wrapped));
+        Assert.assertTrue(element.equals(element));
+        Assert.assertEquals(element.hashCode(), wrapped.hashCode());
+        Assert.assertFalse(element.equals(context.findElement(By.id("input-lastname"))));
+        Assert.assertTrue(context.equals(context));
+        Assert.assertFalse(context.equals(browser.open("user-2")));
+    }
+
+    @Test
+    public void quitClosesTheContextAndLeavesTheBrowserRunning() {
+        WebDriver context = browser.open("user-1");
+
+        context.quit();
+        browser.open("user-2").close();
+
+        Assert.assertEquals(browser.closed, List.of("user-1 user-1-tab", "user-2 user-2-tab"));
+        Assert.assertEquals(raw.quits, 0);
+    }
+
+    @Test
+    public void pageLoadsGoToTheContextsTabDirectly() {
+        WebDriver context = browser.open("user-1");
+        raw.resetCommandCount();
+
+        context.get("https://tutorialsninja.com/demo/");
+        context.navigate().to("https://tutorialsninja.com/demo/index.php?route=account/login");
+        context.navigate().back();
+        context.navigate().refresh();
+
+        Assert.assertEquals(browser.navigations, List.of("user-1-tab https://tutorialsninja.com/demo/",
+                "user-1-tab https://tutorialsninja.com/demo/index.php?route=account/login", "user-1-tab -1",
+                "user-1-tab reload"));
+        // No window switch and no classic command, so nothing waited for the browser lock
+        Assert.assertEquals(raw.getCommandCount(), 0);
+    }
+
+    @Test
+    public void timeoutsStayWithTheirContext() {
+        WebDriver first = browser.open("user-1");
+        WebDriver second = browser.open("user-2");
+        Duration sessionScriptTimeout = raw.manage().timeouts().getScriptTimeout();
+
+        first.manage().timeouts().implicitlyWait(Duration.ofSeconds(5)).scriptTimeout(Duration.ofSeconds(90));
+
+        Assert.assertEquals(first.manage().timeouts().getImplicitWaitTimeout(), Duration.ofSeconds(5));
+        Assert.assertEquals(second.manage().timeouts().getImplicitWaitTimeout(), Duration.ZERO);
+        Assert.assertEquals(raw.manage().timeouts().getImplicitWaitTimeout(), Duration.ZERO);
+
+        first.getTitle();
+        Assert.assertEquals(raw.manage().timeouts().getScriptTimeout(), Duration.ofSeconds(90));
+        second.getTitle();
+        Assert.assertEquals(raw.manage().timeouts().getScriptTimeout(), sessionScriptTimeout);
+        Assert.assertEquals(second.manage().timeouts().getScriptTimeout(), sessionScriptTimeout);
+    }
+
+    @Test
+    public void commandsFollowTheirContextsTab() {
+        WebDriver first = browser.open("user-1");
+        WebDriver second = browser.open("user-2");
+        first.getTitle();
+        raw.resetCommandCount();
+
+        first.getTitle();
+        Assert.assertEquals(raw.getCommandCount(), 1);
+        second.getTitle();
+        // The switch to the other tab, then the command
+        Assert.assertEquals(raw.getCommandCount(), 3);
+    }
+}
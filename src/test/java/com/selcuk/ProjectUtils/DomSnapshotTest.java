@@ -0,0 +1,138 @@
+package com.selcuk.ProjectUtils;
+
+import com.selcuk.Benchmarks.FakeWebDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.How;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+public class DomSnapshotTest {
+
+    public static class FakePage {
+        @FindBy(how = How.XPATH, using = "//div[@id='content']/h1")
+        WebElement heading;
+        @FindBy(id = "input-firstname")
+        WebElement firstName;
+
+        FakePage(WebDriver driver) {
+            InteractionMetrics.initElements(driver, this);
+        }
+    }
+
+    @AfterMethod
+    public void clearSnapshot() {
+        DomSnapshot.invalidate();
+    }
+
+    @Test
+    public void snapshotAnswersMatchLiveCalls() {
+        // Metrics stay at their shipped default, so the locator naming is part of what is counted
+        Assert.assertTrue(InteractionMetrics.ENABLED);
+        FakeWebDriver fake = new FakeWebDriver(0, 1);
+        WebDriver driver = InteractionMetrics.decorate(fake);
+        FakePage page = new FakePage(driver);
+        String liveHeading = ElementUtilities.getElementText(page.heading);
+        boolean liveDisplayed = ElementUtilities.isElementDisplayed(page.firstName);
+        long liveCommands = fake.getCommandCount();
+
+        DomSnapshot snapshot = DomSnapshot.capture(driver, page);
+        fake.resetCommandCount();
+
+        Assert.assertEquals(snapshot.size(), 2);
+        Assert.assertNotNull(DomSnapshot.lookup(page.heading));
+        Assert.assertNotNull(DomSnapshot.lookup(page.firstName));
+        Assert.assertEquals(ElementUtilities.getElementText(page.heading), liveHeading);
+        Assert.assertEquals(ElementUtilities.isElementDisplayed(page.firstName), liveDisplayed);
+        Assert.assertTrue(liveCommands > 0);
+        Assert.assertEquals(fake.getCommandCount(), 0);
+    }
+
+    @Test
+    public void readsTakenTogetherCostOneScriptCall() {
+        FakeWebDriver fake = new FakeWebDriver(0, 1);
+        WebDriver driver = InteractionMetrics.decorate(fake);
+        FakePage page = new FakePage(driver);
+
+        String text = DomSnapshot.readTogether(driver, page, () ->
+                ElementUtilities.getElementText(page.heading) + ElementUtilities.isElementDisplayed(page.firstName));
+
+        Assert.assertEquals(text, "By.xpath: //div[@id='content']/h1true");
+        Assert.assertEquals(fake.getCommandCount(), 1);
+        Assert.assertFalse(DomSnapshot.isActive());
+    }
+
+    @Test
+    public void readsTakenTogetherKeepAnActiveSnapshot() {
+        FakeWebDriver fake = new FakeWebDriver(0, 1);
+        WebDriver driver = InteractionMetrics.decorate(fake);
+        FakePage page = new FakePage(driver);
+        DomSnapshot.capture(driver, page);
+        fake.resetCommandCount();
+
+        DomSnapshot.readTogether(driver, page, () -> ElementUtilities.getElementText(page.heading));
+
+        Assert.assertEquals(fake.getCommandCount(), 0);
+        Assert.assertTrue(DomSnapshot.isActive());
+    }
+
+    @Test
+    public void navigationClearsTheSnapshot() {
+        WebDriver driver = InteractionMetrics.decorate(new FakeWebDriver(0, 1));
+        FakePage page = new FakePage(driver);
+
+        DomSnapshot.capture(driver, page);
+        driver.get("https://tutorialsninja.com/demo/index.php?route=account/register");
+        Assert.assertFalse(DomSnapshot.isActive());
+
+        DomSnapshot.capture(driver, page);
+        driver.navigate().back();
+        Assert.assertFalse(DomSnapshot.isActive());
+
+        DomSnapshot.capture(driver, page);
+        driver.switchTo().defaultContent();
+        Assert.assertFalse(DomSnapshot.isActive());
+    }
+
+    @Test
+    public void clicksOutsideElementUtilitiesClearTheSnapshot() {
+        WebDriver driver = InteractionMetrics.decorate(new FakeWebDriver(0, 1));
+        FakePage page = new FakePage(driver);
+        WebElement link = driver.findElement(By.linkText("Continue"));
+
+        DomSnapshot.capture(driver, page);
+        page.heading.getText();
+        Assert.assertTrue(DomSnapshot.isActive());
+        link.click();
+        Assert.assertFalse(DomSnapshot.isActive());
+    }
+
+    @Test
+    public void booleanAttributesReadLikeGetDomAttribute() {
+        DomSnapshot.Node node = DomSnapshot.toNode(Map.of(
+                "displayed", true,
+                "text", "",
+                "attributes", Map.of("disabled", "", "checked", "checked", "type", "checkbox", "value", "1")));
+
+        Assert.assertEquals(node.getAttribute("disabled"), "true");
+        Assert.assertEquals(node.getAttribute("checked"), "true");
+        Assert.assertNull(node.getAttribute("readonly"));
+        Assert.assertEquals(node.getAttribute("type"), "checkbox");
+        Assert.assertEquals(node.getAttribute("TYPE"), "checkbox");
+        Assert.assertEquals(node.getAttribute("value"), "1");
+        Assert.assertNull(node.getAttribute("placeholder"));
+    }
+
+    @Test
+    public void hiddenElementsReadAsEmptyText() {
+        DomSnapshot.Node node = DomSnapshot.toNode(Map.of("displayed", false, "text", "Warning", "attributes", Map.of()));
+
+        Assert.assertFalse(node.isDisplayed());
+        Assert.assertEquals(node.getText(), "");
+    }
+}
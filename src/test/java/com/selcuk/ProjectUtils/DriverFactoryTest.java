@@ -0,0 +1,76 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Dimension;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class DriverFactoryTest {
+    private static final Dimension WINDOW = new Dimension(1366, 768);
+
+    @SuppressWarnings("unchecked")
+    private static List<String> arguments(Capabilities options, String key) {
+        return (List<String>) ((Map<String, Object>) options.asMap().get(key)).get("args");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> preferences(Capabilities options) {
+        return (Map<String, Object>) ((Map<String, Object>) options.asMap().get("moz:firefoxOptions")).get("prefs");
+    }
+
+    @Test
+    public void chromeOnlyGoesHeadlessOutsideTheDefaultProfile() {
+        List<String> normal = arguments(DriverFactory.chromeOptions(DriverFactory.LaunchProfile.DEFAULT, WINDOW), "goog:chromeOptions");
+        List<String> headless = arguments(DriverFactory.chromeOptions(DriverFactory.LaunchProfile.HEADLESS, WINDOW), "goog:chromeOptions");
+
+        Assert.assertFalse(normal.contains("--headless=new"));
+        Assert.assertTrue(normal.stream().anyMatch(argument -> argument.startsWith("--disk-cache-dir=")));
+        Assert.assertTrue(headless.contains("--headless=new"));
+        Assert.assertTrue(headless.contains("--window-size=1366,768"));
+        Assert.assertFalse(headless.contains("--disable-extensions"));
+    }
+
+    @Test
+    public void chromeLeanProfileDropsImagesAndBackgroundWork() {
+        List<String> lean = arguments(DriverFactory.chromeOptions(DriverFactory.LaunchProfile.HEADLESS_LEAN, WINDOW), "goog:chromeOptions");
+
+        Assert.assertTrue(lean.contains("--headless=new"));
+        Assert.assertTrue(lean.containsAll(List.of("--disable-extensions", "--disable-gpu", "--disable-background-networking",
+                "--blink-settings=imagesEnabled=false")));
+    }
+
+    @Test
+    public void edgeFollowsTheSameProfiles() {
+        List<String> normal = arguments(DriverFactory.edgeOptions(DriverFactory.LaunchProfile.DEFAULT, WINDOW), "ms:edgeOptions");
+        List<String> lean = arguments(DriverFactory.edgeOptions(DriverFactory.LaunchProfile.HEADLESS_LEAN, new Dimension(1920, 1080)),
+                "ms:edgeOptions");
+
+        Assert.assertFalse(normal.contains("--headless=new"));
+        Assert.assertTrue(normal.stream().anyMatch(argument -> argument.startsWith("--disk-cache-dir=")));
+        Assert.assertTrue(lean.contains("--headless=new"));
+        Assert.assertTrue(lean.contains("--window-size=1920,1080"));
+        Assert.assertTrue(lean.containsAll(List.of("--disable-extensions", "--disable-gpu", "--blink-settings=imagesEnabled=false")));
+    }
+
+    @Test
+    public void firefoxLeanProfileUsesPreferences() {
+        Capabilities normal = DriverFactory.firefoxOptions(DriverFactory.LaunchProfile.DEFAULT, WINDOW);
+        Capabilities headless = DriverFactory.firefoxOptions(DriverFactory.LaunchProfile.HEADLESS, WINDOW);
+        Capabilities lean = DriverFactory.firefoxOptions(DriverFactory.LaunchProfile.HEADLESS_LEAN, WINDOW);
+
+        Assert.assertFalse(String.valueOf(arguments(normal, "moz:firefoxOptions")).contains("-headless"));
+        Assert.assertEquals(arguments(headless, "moz:firefoxOptions"), List.of("-headless", "-width=1366", "-height=768"));
+        Assert.assertFalse(preferences(headless).containsKey("permissions.default.image"));
+        Assert.assertEquals(preferences(lean).get("permissions.default.image"), 2);
+        Assert.assertEquals(preferences(lean).get("extensions.update.enabled"), false);
+    }
+
+    @Test
+    public void windowSizesAreParsedLeniently() {
+        Assert.assertEquals(DriverFactory.parseWindowSize(" 1920 X 1080"), new Dimension(1920, 1080));
+        Assert.assertThrows(NumberFormatException.class, () -> DriverFactory.parseWindowSize("wide"));
+    }
+}
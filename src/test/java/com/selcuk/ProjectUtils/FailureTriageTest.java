@@ -0,0 +1,126 @@
+package com.selcuk.ProjectUtils;
+
+import com.selcuk.Benchmarks.FakeWebDriver;
+import org.testng.Assert;
+import org.testng.IClass;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class FailureTriageTest {
+    private static final String FLAKY = "com.example.RegisterTest#register|NoSuchElementException|By.id: input-email|-";
+    private static final String REAL = "com.example.RegisterTest#warnings|AssertionError|By.xpath: //div[@class='x']|ab12";
+    private static final String NEW = "com.example.LoginTest#login|TimeoutException|-|-";
+
+    @Test
+    public void workerOutcomesSurviveTheRoundTripThroughTheScheduler() {
+        FailureTriage.drainOutcomes();
+        FailureTriage.mergeOutcome("3 1 " + FLAKY);
+        FailureTriage.mergeOutcome("0 2 " + REAL);
+        FailureTriage.mergeOutcome("0 0 " + NEW);
+
+        Assert.assertEquals(FailureTriage.classify(FLAKY), FailureTriage.Classification.FLAKY);
+        Assert.assertEquals(FailureTriage.classify(REAL), FailureTriage.Classification.REAL);
+        Assert.assertEquals(FailureTriage.classify(NEW), FailureTriage.Classification.UNKNOWN);
+
+        List<String> outcomes = FailureTriage.drainOutcomes();
+        Assert.assertEquals(outcomes.size(), 3);
+        Assert.assertTrue(outcomes.contains("3 1 " + FLAKY), outcomes.toString());
+        Assert.assertTrue(outcomes.contains("0 2 " + REAL), outcomes.toString());
+        Assert.assertTrue(outcomes.contains("0 0 " + NEW), outcomes.toString());
+        Assert.assertTrue(FailureTriage.drainOutcomes().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void transformKeepsAnalyzersChosenByTheTest() throws NoSuchMethodException {
+        // Whatever TestNG puts in @Test when no analyzer is declared
+        Class<? extends IRetryAnalyzer> testNgDefault =
+                (Class<? extends IRetryAnalyzer>) Test.class.getMethod("retryAnalyzer").getDefaultValue();
+
+        Assert.assertEquals(transformed(null), RetryAnalyzer.class);
+        Assert.assertEquals(transformed(testNgDefault), RetryAnalyzer.class);
+        Assert.assertEquals(transformed(OwnAnalyzer.class), OwnAnalyzer.class);
+    }
+
+    private static Class<?> transformed(Class<? extends IRetryAnalyzer> declared) {
+        AtomicReference<Class<?>> analyzer = new AtomicReference<>(declared);
+        ITestAnnotation annotation = (ITestAnnotation) Proxy.newProxyInstance(FailureTriageTest.class.getClassLoader(),
+                new Class<?>[]{ITestAnnotation.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getRetryAnalyzerClass")) {
+                        return analyzer.get();
+                    }
+                    if (method.getName().equals("setRetryAnalyzer")) {
+                        analyzer.set((Class<?>) args[0]);
+                    }
+                    return null;
+                });
+        new FailureTriage().transform(annotation, null, null, null);
+        return analyzer.get();
+    }
+
+    @Test
+    public void aFailedAttemptIsScreenshottedOnceAndTheHashJoinsTheSignature() throws Exception {
+        ITestResult result = failedResult();
+        FakeWebDriver driver = new FakeWebDriver(0, 1);
+
+        FailureTriage.captureScreenshot(result, null);
+        Assert.assertTrue(FailureTriage.signatureOf(result).endsWith("|-"));
+
+        FailureTriage.captureScreenshot(result, driver);
+        FailureTriage.captureScreenshot(result, driver);
+        String screenshot = (String) result.getAttribute(FailureTriage.SCREENSHOT_ATTRIBUTE);
+        try {
+            Assert.assertEquals(driver.getCommandCount(), 1);
+            Assert.assertTrue(screenshot.startsWith(FailureTriage.SCREENSHOT_DIRECTORY.toString()), screenshot);
+            Assert.assertTrue(Files.exists(Paths.get(screenshot)));
+            Assert.assertTrue(FailureTriage.signatureOf(result).matches(".*\\|[0-9a-f]{12}"), FailureTriage.signatureOf(result));
+        } finally {
+            Files.deleteIfExists(Paths.get(screenshot));
+        }
+    }
+
+    private static ITestResult failedResult() {
+        Map<String, Object> attributes = new HashMap<>();
+        IClass testClass = (IClass) Proxy.newProxyInstance(FailureTriageTest.class.getClassLoader(), new Class<?>[]{IClass.class},
+                (proxy, method, args) -> method.getName().equals("getName") ? "com.example.RegisterTest" : null);
+        ITestNGMethod testMethod = (ITestNGMethod) Proxy.newProxyInstance(FailureTriageTest.class.getClassLoader(),
+                new Class<?>[]{ITestNGMethod.class},
+                (proxy, method, args) -> method.getName().equals("getMethodName") ? "register" : null);
+        return (ITestResult) Proxy.newProxyInstance(FailureTriageTest.class.getClassLoader(), new Class<?>[]{ITestResult.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTestClass":
+                            return testClass;
+                        case "getMethod":
+                            return testMethod;
+                        case "getThrowable":
+                            return new AssertionError("By.id: input-email was not displayed");
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            attributes.put((String) args[0], args[1]);
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    public static class OwnAnalyzer implements IRetryAnalyzer {
+        @Override
+        public boolean retry(org.testng.ITestResult result) {
+            return false;
+        }
+    }
+}
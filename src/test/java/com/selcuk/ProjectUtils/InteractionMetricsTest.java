@@ -0,0 +1,118 @@
+package com.selcuk.ProjectUtils;
+
+import com.selcuk.Benchmarks.FakeWebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+public class InteractionMetricsTest {
+
+    @BeforeMethod
+    public void reset() {
+        InteractionMetrics.reset();
+    }
+
+    @Test
+    public void nestedCallsAreRecordedOnceEach() {
+        int value = InteractionMetrics.call("outer", null, () ->
+                InteractionMetrics.call("inner", null, () -> 1) + InteractionMetrics.call("inner", null, () -> 2));
+
+        Assert.assertEquals(value, 3);
+        Assert.assertEquals(InteractionMetrics.getPerLocator().get("outer -").latencyNanos.getCount(), 1);
+        Assert.assertEquals(InteractionMetrics.getPerLocator().get("inner -").latencyNanos.getCount(), 2);
+    }
+
+    @Test
+    public void failingCallsAreStillRecorded() {
+        Assert.assertThrows(IllegalStateException.class, () -> InteractionMetrics.run("failing", null, () -> {
+            throw new IllegalStateException("element went stale");
+        }));
+
+        Assert.assertEquals(InteractionMetrics.getPerLocator().get("failing -").latencyNanos.getCount(), 1);
+        // The depth was unwound, so the next call is an outermost call again
+        InteractionMetrics.run("next", null, () -> {
+        });
+        Assert.assertEquals(InteractionMetrics.getPerLocator().get("next -").latencyNanos.getCount(), 1);
+    }
+
+    @Test
+    public void pageMethodsAreOnlyAttributedWhenAskedFor() {
+        InteractionMetrics.run("clickOnElement", null, () -> {
+        });
+
+        Assert.assertFalse(InteractionMetrics.PAGE_METHODS);
+        Assert.assertTrue(InteractionMetrics.getPerPageMethod().isEmpty());
+    }
+
+    public static class Page {
+        @FindBy(id = "input-firstname")
+        WebElement firstName;
+    }
+
+    @Test
+    public void namingAPageElementDoesNotLocateIt() {
+        FakeWebDriver fake = new FakeWebDriver(0, 1);
+        Page page = new Page();
+        InteractionMetrics.initElements(InteractionMetrics.decorate(fake), page);
+
+        Assert.assertEquals(InteractionMetrics.describeLocator(page.firstName), "By.id: input-firstname");
+        Assert.assertEquals(fake.getCommandCount(), 0);
+        Assert.assertEquals(ElementUtilities.getElementText(page.firstName), "By.id: input-firstname");
+        Assert.assertEquals(InteractionMetrics.getPerLocator().get("getElementText By.id: input-firstname").roundTrips.getSum(),
+                fake.getCommandCount());
+    }
+
+    @Test
+    public void workerPageMethodStatsReachTheSchedulersFinishRun() {
+        InteractionMetrics.mergePerPageMethod("RegisterPage.registeringAnAccount " + histogram(1_000_000, 3_000_000)
+                + "|" + histogram(12, 14));
+        InteractionMetrics.mergePerPageMethod("RegisterPage.registeringAnAccount " + histogram(2_000_000)
+                + "|" + histogram(13));
+
+        InteractionMetrics.Stats stats = InteractionMetrics.getPerPageMethod().get("RegisterPage.registeringAnAccount");
+        Assert.assertEquals(stats.latencyNanos.getCount(), 3);
+        Assert.assertEquals(stats.latencyNanos.getMax(), 3_000_000);
+        Assert.assertEquals(stats.roundTrips.getSum(), 39);
+
+        List<String> drained = InteractionMetrics.drainPerPageMethod();
+        Assert.assertEquals(drained.size(), 1);
+        Assert.assertTrue(InteractionMetrics.getPerPageMethod().isEmpty());
+        InteractionMetrics.mergePerPageMethod(drained.get(0));
+        Assert.assertEquals(InteractionMetrics.getPerPageMethod().get("RegisterPage.registeringAnAccount").latencyNanos.getSum(), 6_000_000);
+    }
+
+    @Test
+    public void startupTimesAreReportedPerLaunchProfile() throws Exception {
+        DriverFactory.recordStartup("chrome", DriverFactory.LaunchProfile.HEADLESS_LEAN, false, System.nanoTime() - 900_000_000L);
+        DriverFactory.recordStartup("chrome", DriverFactory.LaunchProfile.HEADLESS_LEAN, false, System.nanoTime() - 700_000_000L);
+        DriverFactory.recordStartup("firefox", DriverFactory.LaunchProfile.DEFAULT, true, System.nanoTime() - 2_000_000_000L);
+
+        Assert.assertEquals(InteractionMetrics.getPerStartup().keySet(), Set.of("chrome HEADLESS_LEAN", "firefox DEFAULT shared"));
+        Assert.assertEquals(InteractionMetrics.getPerStartup().get("chrome HEADLESS_LEAN").latencyNanos.getCount(), 2);
+        Assert.assertTrue(InteractionMetrics.toPrometheusText()
+                .contains("tn_browser_startup_seconds_count{launch=\"chrome HEADLESS_LEAN\"} 2\n"));
+
+        Path report = Files.createTempFile("interaction-metrics", ".csv");
+        try {
+            InteractionMetrics.writeReport(report);
+            Assert.assertTrue(Files.readAllLines(report).stream().anyMatch(row -> row.startsWith("startup,\"firefox DEFAULT shared\",1,")));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    private static String histogram(long... values) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : values) {
+            histogram.record(value);
+        }
+        return histogram.encode();
+    }
+}
@@ -0,0 +1,100 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.stream.IntStream;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 0);
+        Assert.assertEquals(histogram.getMean(), 0.0);
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 20; value++) {
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 10);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 20);
+        Assert.assertEquals(histogram.getSum(), 210);
+    }
+
+    @Test
+    public void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        for (double percentile : new double[]{50, 75, 95, 99, 99.9}) {
+            long exact = (long) Math.ceil(100_000 * percentile / 100);
+            long reported = histogram.getValueAtPercentile(percentile);
+            Assert.assertTrue(reported >= exact && reported <= exact * 1.07,
+                    "p" + percentile + " reported " + reported + " for exact " + exact);
+        }
+        Assert.assertEquals(histogram.getMax(), 100_000);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 100_000);
+    }
+
+    @Test
+    public void everyValueFallsInsideItsBucket() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            Assert.assertTrue(value <= LatencyHistogram.upperBoundOf(index), String.valueOf(value));
+            if (index > 0) {
+                Assert.assertTrue(value > LatencyHistogram.upperBoundOf(index - 1), String.valueOf(value));
+            }
+        }
+    }
+
+    @Test
+    public void negativeValuesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        Assert.assertEquals(histogram.getCount(), 1);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 0);
+    }
+
+    @Test
+    public void concurrentRecordingLosesNothing() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        IntStream.range(0, 200_000).parallel().forEach(histogram::record);
+
+        Assert.assertEquals(histogram.getCount(), 200_000);
+        Assert.assertEquals(histogram.getMax(), 199_999);
+        Assert.assertEquals(histogram.getSum(), 199_999L * 200_000 / 2);
+    }
+
+    @Test
+    public void encodedHistogramsAddUpAcrossJvms() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        LatencyHistogram both = new LatencyHistogram();
+        for (int value = 0; value < 1_000; value++) {
+            (value % 3 == 0 ? first : second).record(value * 37L);
+            both.record(value * 37L);
+        }
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.addEncoded(first.encode());
+        merged.addEncoded(second.encode());
+        merged.addEncoded(new LatencyHistogram().encode());
+
+        Assert.assertEquals(merged.getCount(), both.getCount());
+        Assert.assertEquals(merged.getSum(), both.getSum());
+        Assert.assertEquals(merged.getMax(), both.getMax());
+        Assert.assertEquals(merged.getValueAtPercentile(50), both.getValueAtPercentile(50));
+        Assert.assertEquals(merged.getValueAtPercentile(95), both.getValueAtPercentile(95));
+    }
+}
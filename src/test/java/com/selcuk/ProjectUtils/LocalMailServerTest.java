@@ -0,0 +1,159 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LocalMailServerTest {
+    private LocalMailServer server;
+
+    @BeforeMethod
+    public void startServer() {
+        server = new LocalMailServer().start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    private static byte[] mail(String subject, String... bodyLines) {
+        StringBuilder raw = new StringBuilder("From: store@tutorialsninja.test\r\nTo: user@example.test\r\nSubject: ")
+                .append(subject).append("\r\n\r\n");
+        for (String line : bodyLines) {
+            raw.append(line).append("\r\n");
+        }
+        return raw.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean hasSubject(Message message, String subject) {
+        try {
+            return subject.equals(message.getSubject());
+        } catch (MessagingException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void returnsAlreadyDeliveredMessage() {
+        server.deliver("USER@example.test", mail("Welcome", "Thanks for registering"));
+
+        Message message = server.waitForMessage("user@example.test", m -> hasSubject(m, "Welcome"), 100);
+
+        Assert.assertNotNull(message);
+    }
+
+    @Test
+    public void timesOutWhenNothingMatches() {
+        server.deliver("user@example.test", mail("Welcome"));
+        server.deliver("other@example.test", mail("Reset"));
+
+        Assert.assertNull(server.waitForMessage("user@example.test", m -> hasSubject(m, "Reset"), 200));
+    }
+
+    @Test(timeOut = 10_000)
+    public void seesMessagesDeliveredAfterClear() throws Exception {
+        CountDownLatch inspected = new CountDownLatch(2);
+        server.deliver("user@example.test", mail("Old 1"));
+        server.deliver("user@example.test", mail("Old 2"));
+        CompletableFuture<Message> waiting = CompletableFuture.supplyAsync(() ->
+                server.waitForMessage("user@example.test", m -> {
+                    inspected.countDown();
+                    return hasSubject(m, "New");
+                }, 5_000));
+        Assert.assertTrue(inspected.await(5, TimeUnit.SECONDS));
+
+        // The mailbox is now smaller than the number of messages the waiter has already looked at
+        server.clear();
+        server.deliver("user@example.test", mail("New"));
+
+        Message message = waiting.get(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(message, "message delivered after clear() was skipped");
+        Assert.assertEquals(message.getSubject(), "New");
+    }
+
+    @Test(timeOut = 10_000)
+    public void conditionDoesNotBlockDeliveries() throws Exception {
+        CountDownLatch evaluating = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        server.deliver("user@example.test", mail("Slow"));
+        CompletableFuture<Message> waiting = CompletableFuture.supplyAsync(() ->
+                server.waitForMessage("user@example.test", m -> {
+                    evaluating.countDown();
+                    try {
+                        delivered.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return hasSubject(m, "Fast");
+                }, 5_000));
+        Assert.assertTrue(evaluating.await(5, TimeUnit.SECONDS));
+
+        server.deliver("user@example.test", mail("Fast"));
+        delivered.countDown();
+
+        Assert.assertEquals(waiting.get(5, TimeUnit.SECONDS).getSubject(), "Fast");
+    }
+
+    @Test
+    public void pop3AnswersErrorsAndTop() throws IOException {
+        server.deliver("user@example.test", mail("Welcome", "line 1", ".dot line", "line 3"));
+
+        try (Socket socket = new Socket("127.0.0.1", server.getPop3Port())) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            Assert.assertTrue(in.readLine().startsWith("+OK"));
+            Assert.assertTrue(command(in, out, "USER user@example.test").startsWith("+OK"));
+
+            Assert.assertTrue(command(in, out, "RETR 2").startsWith("-ERR"));
+            Assert.assertTrue(command(in, out, "RETR x").startsWith("-ERR"));
+            Assert.assertTrue(command(in, out, "DELE 0").startsWith("-ERR"));
+            Assert.assertTrue(command(in, out, "LIST 9").startsWith("-ERR"));
+            Assert.assertTrue(command(in, out, "TOP 1").startsWith("-ERR"));
+
+            Assert.assertTrue(command(in, out, "TOP 1 2").startsWith("+OK"));
+            List<String> top = readMultiline(in);
+            Assert.assertTrue(top.contains("Subject: Welcome"), top.toString());
+            int blank = top.indexOf("");
+            Assert.assertEquals(top.subList(blank + 1, top.size()), List.of("line 1", "..dot line"));
+
+            Assert.assertTrue(command(in, out, "TOP 1 0").startsWith("+OK"));
+            List<String> headers = readMultiline(in);
+            Assert.assertEquals(headers.get(headers.size() - 1), "");
+
+            // The session survived every bad request
+            Assert.assertTrue(command(in, out, "NOOP").startsWith("+OK"));
+            Assert.assertTrue(command(in, out, "QUIT").startsWith("+OK"));
+        }
+    }
+
+    private static String command(BufferedReader in, PrintWriter out, String command) throws IOException {
+        out.print(command + "\r\n");
+        out.flush();
+        return in.readLine();
+    }
+
+    private static List<String> readMultiline(BufferedReader in) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while (!(line = in.readLine()).equals(".")) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,86 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class LocalStorefrontServerTest {
+    private LocalStorefrontServer server;
+    private final HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+
+    @BeforeMethod
+    public void startServer() {
+        server = new LocalStorefrontServer().start(0);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    private HttpResponse<String> get(String query) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(server.getBaseURL() + "index.php?" + query)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void registerPageHasTheIdsThePageObjectsUse() throws Exception {
+        HttpResponse<String> response = get("route=account/register");
+
+        Assert.assertEquals(response.statusCode(), 200);
+        for (String id : new String[]{"input-firstname", "input-lastname", "input-email", "input-telephone",
+                "input-password", "input-confirm"}) {
+            Assert.assertTrue(response.body().contains("id=\"" + id + "\""), id);
+        }
+        Assert.assertTrue(response.body().contains("<ul class=\"breadcrumb\">"));
+    }
+
+    @Test
+    public void categoryPagesSortAndPage() throws Exception {
+        String body = get("route=product/category&path=18&sort=p.price&order=DESC&limit=2&page=2").body();
+
+        // MacBook Pro and MacBook Air fill the first page
+        Assert.assertTrue(body.contains(">Sony VAIO<"), body);
+        Assert.assertTrue(body.contains(">MacBook<"), body);
+        Assert.assertFalse(body.contains("MacBook Pro"), body);
+        Assert.assertTrue(body.contains("Showing 3 to 4 of 5"), body);
+    }
+
+    @Test
+    public void badPagingParametersAreRejected() throws Exception {
+        Assert.assertEquals(get("route=product/category&path=20&limit=abc").statusCode(), 400);
+        Assert.assertEquals(get("route=product/category&path=20&page=x").statusCode(), 400);
+        Assert.assertEquals(get("route=product/category&path=20&page=0").statusCode(), 400);
+        Assert.assertEquals(get("route=product/category&path=20&limit=-5").statusCode(), 400);
+        // The server keeps answering after a bad request
+        Assert.assertEquals(get("route=product/category&path=20").statusCode(), 200);
+    }
+
+    @Test
+    public void accountPageNeedsASession() throws Exception {
+        HttpResponse<String> response = get("route=account/account");
+
+        Assert.assertEquals(response.statusCode(), 302);
+        Assert.assertTrue(response.headers().firstValue("Location").orElse("").endsWith("route=account/login"));
+    }
+
+    @Test
+    public void logoutWithoutASessionStillAnswers() throws Exception {
+        Assert.assertEquals(get("route=account/logout").statusCode(), 200);
+    }
+
+    @Test
+    public void unknownRoutesStillRenderAPage() throws Exception {
+        HttpResponse<String> response = get("route=information/contact");
+
+        Assert.assertEquals(response.statusCode(), 200);
+        Assert.assertTrue(response.body().contains("<h1>contact</h1>"));
+    }
+}
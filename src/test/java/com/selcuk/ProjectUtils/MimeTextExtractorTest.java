@@ -0,0 +1,154 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.mail.BodyPart;
+import javax.mail.MessagingException;
+import javax.mail.Part;
+import javax.mail.Session;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+public class MimeTextExtractorTest {
+    private static final String RESET_LINK = "https://tutorialsninja.com/demo/index.php?route=account/reset&amp;code=abc123";
+
+    // Counts how often the body is opened and how many bytes are read from it
+    static class CountingPart extends MimeBodyPart {
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger bytesRead = new AtomicInteger();
+
+        CountingPart(String text, String subtype) throws MessagingException {
+            setText(text, "UTF-8", subtype);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException, MessagingException {
+            opened.incrementAndGet();
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = super.read(buffer, offset, length);
+                    bytesRead.addAndGet(Math.max(read, 0));
+                    return read;
+                }
+            };
+        }
+    }
+
+    private static MimeMessage message(MimeMultipart content) throws Exception {
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setContent(content);
+        message.saveChanges();
+        return message;
+    }
+
+    private static MimeMultipart multipart(String subtype, BodyPart... parts) throws MessagingException {
+        MimeMultipart multipart = new MimeMultipart(subtype);
+        for (BodyPart part : parts) {
+            multipart.addBodyPart(part);
+        }
+        return multipart;
+    }
+
+    private static MimeBodyPart text(String text, String subtype) throws MessagingException {
+        MimeBodyPart part = new MimeBodyPart();
+        part.setText(text, "UTF-8", subtype);
+        return part;
+    }
+
+    private static MimeBodyPart nested(MimeMultipart multipart) throws MessagingException {
+        MimeBodyPart part = new MimeBodyPart();
+        part.setContent(multipart);
+        return part;
+    }
+
+    @Test
+    public void plainAndHtmlBodiesAreKeptApart() throws Exception {
+        MimeMessage message = message(multipart("alternative", text("Welcome, Ada", "plain"),
+                text("<p>Welcome, <b>Ada</b></p>", "html")));
+
+        MimeTextExtractor extractor = MimeTextExtractor.extract(message);
+
+        Assert.assertEquals(extractor.getPlainText(), "Welcome, Ada");
+        Assert.assertEquals(extractor.getHtmlText(), "<p>Welcome, <b>Ada</b></p>");
+        Assert.assertEquals(extractor.getAllText(), "Welcome, Ada<p>Welcome, <b>Ada</b></p>");
+    }
+
+    @Test
+    public void nestedMultipartsAreWalkedInOrder() throws Exception {
+        MimeMessage message = message(multipart("mixed",
+                nested(multipart("related", nested(multipart("alternative", text("first", "plain"), text("<i>first</i>", "html"))))),
+                text("second", "plain")));
+
+        MimeTextExtractor extractor = MimeTextExtractor.extract(message);
+
+        Assert.assertEquals(extractor.getPlainText(), "firstsecond");
+        Assert.assertEquals(extractor.getHtmlText(), "<i>first</i>");
+    }
+
+    @Test
+    public void attachmentsAreNotRead() throws Exception {
+        CountingPart attachment = new CountingPart("invoice " + RESET_LINK, "plain");
+        attachment.setDisposition(Part.ATTACHMENT);
+        attachment.setFileName("invoice.txt");
+        MimeMessage message = message(multipart("mixed", text("Your order", "plain"), attachment));
+
+        Assert.assertEquals(MimeTextExtractor.extract(message).getAllText(), "Your order");
+        Assert.assertNull(MimeTextExtractor.findPasswordResetLink(message));
+        Assert.assertEquals(attachment.opened.get(), 0);
+    }
+
+    @Test
+    public void textIsDecodedWithThePartsCharset() throws Exception {
+        String greeting = "Gr\u00fc\u00dfe aus K\u00f6ln";
+        MimeBodyPart latin1 = new MimeBodyPart();
+        latin1.setText(greeting, "ISO-8859-1");
+        // Written out and parsed again, so the part is decoded from its raw bytes
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        message(multipart("mixed", latin1)).writeTo(raw);
+
+        Assert.assertEquals(MimeTextExtractor.extract(parse(raw.toByteArray())).getPlainText(), greeting);
+        // An unknown charset falls back to UTF-8
+        byte[] unknownCharset = ("Content-Type: text/plain; charset=no-such-charset\r\n\r\ncaf\u00e9").getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(MimeTextExtractor.extract(parse(unknownCharset)).getPlainText(), "caf\u00e9");
+    }
+
+    private static MimeMessage parse(byte[] raw) throws MessagingException {
+        return new MimeMessage(Session.getInstance(new Properties()), new ByteArrayInputStream(raw));
+    }
+
+    @Test
+    public void findingALinkStopsReadingTheMessage() throws Exception {
+        StringBuilder body = new StringBuilder("Reset your password: " + RESET_LINK + "\n");
+        while (body.length() < 200_000) {
+            body.append("Lorem ipsum dolor sit amet, consectetur adipiscing elit.\n");
+        }
+        CountingPart first = new CountingPart(body.toString(), "plain");
+        CountingPart second = new CountingPart("https://tutorialsninja.com/demo/index.php?route=account/reset&code=later", "plain");
+        MimeMessage message = message(multipart("mixed", first, second));
+
+        Assert.assertEquals(MimeTextExtractor.findPasswordResetLink(message),
+                "https://tutorialsninja.com/demo/index.php?route=account/reset&code=abc123");
+        Assert.assertEquals(second.opened.get(), 0);
+        Assert.assertTrue(first.bytesRead.get() < body.length() / 4, String.valueOf(first.bytesRead.get()));
+    }
+
+    @Test
+    public void findFirstMatchReturnsTheFirstGroup() throws Exception {
+        MimeMessage message = message(multipart("mixed", text("no code here\n", "plain"), text("<p>Your code is 482913</p>", "html")));
+
+        Assert.assertEquals(MimeTextExtractor.findFirstMatch(message, Pattern.compile("code is (\\d+)")), "482913");
+        Assert.assertNull(MimeTextExtractor.findFirstMatch(message, Pattern.compile("voucher (\\w+)")));
+    }
+}
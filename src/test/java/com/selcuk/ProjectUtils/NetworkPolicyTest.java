@@ -0,0 +1,35 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class NetworkPolicyTest {
+
+    @Test
+    public void thirdPartyBlockingKeepsWebFonts() {
+        List<String> thirdParty = new NetworkPolicy().block(NetworkPolicy.ResourceType.THIRD_PARTY).getBlockedPatterns();
+        List<String> fonts = new NetworkPolicy().block(NetworkPolicy.ResourceType.FONT).getBlockedPatterns();
+
+        Assert.assertTrue(thirdParty.stream().noneMatch(pattern -> pattern.contains("fonts.")), thirdParty.toString());
+        Assert.assertTrue(fonts.contains("*fonts.googleapis.com*"));
+        Assert.assertTrue(fonts.contains("*fonts.gstatic.com*"));
+    }
+
+    @Test
+    public void concurrentThreadsGetSeparateCacheDirectories() throws Exception {
+        String here = NetworkPolicy.getCacheArguments().get(0);
+        String elsewhere = CompletableFuture.supplyAsync(() -> NetworkPolicy.getCacheArguments().get(0)).get();
+
+        Assert.assertTrue(here.startsWith("--disk-cache-dir="));
+        Assert.assertEquals(NetworkPolicy.getCacheArguments().get(0), here);
+        Assert.assertNotEquals(elsewhere, here);
+    }
+
+    @Test
+    public void nothingIsBlockedUnlessConfigured() {
+        Assert.assertEquals(NetworkPolicy.fromProperties().getBlockedPatterns(), List.of());
+    }
+}
@@ -0,0 +1,89 @@
+package com.selcuk.ProjectUtils;
+
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+public class OrderVerifierTest {
+
+    @Test
+    public void stopsAtTheFirstItemOutOfOrder() {
+        OrderVerifier verifier = OrderVerifier.ascending(OrderVerifier.NATURAL);
+
+        Assert.assertFalse(verifier.acceptAll(List.of("Apple", "HP", "Canon", "Sony")));
+        Assert.assertEquals(verifier.getViolationIndex(), 2);
+        Assert.assertEquals(verifier.getCheckedCount(), 2);
+        Assert.assertEquals(verifier.getViolation(), "'Canon' at position 2 comes after 'HP'");
+        Assert.assertFalse(verifier.accept("Zebra"));
+    }
+
+    @Test
+    public void equalNeighboursAreInOrder() {
+        Assert.assertTrue(OrderVerifier.isSorted(List.of("HP", "HP", "iMac"), OrderVerifier.CASE_INSENSITIVE));
+        Assert.assertTrue(OrderVerifier.isSorted(List.of(), OrderVerifier.NATURAL));
+        Assert.assertFalse(OrderVerifier.isSorted(List.of("HP", "iMac"), OrderVerifier.NATURAL.reversed()));
+    }
+
+    @Test
+    public void descendingPricesCompareByTheFirstAmount() {
+        OrderVerifier verifier = OrderVerifier.descending(OrderVerifier.NUMERIC_PRICE);
+
+        Assert.assertTrue(verifier.acceptAll(List.of("$1,202.00", "$122.00 Ex Tax: $101.00", "$98.00", "$98.00")));
+        Assert.assertFalse(verifier.accept("$100.00"));
+        Assert.assertEquals(verifier.getViolationIndex(), 4);
+    }
+
+    @Test
+    public void parsePriceReadsTheFirstAmount() {
+        Assert.assertEquals(OrderVerifier.parsePrice("$122.00 Ex Tax: $101.00"), new BigDecimal("122.00"));
+        Assert.assertEquals(OrderVerifier.parsePrice("-5"), new BigDecimal("-5"));
+        Assert.expectThrows(IllegalArgumentException.class, () -> OrderVerifier.parsePrice("Call for price"));
+    }
+
+    @Test
+    public void localeAwareOrderKeepsAccentedNamesWithTheirLetter() {
+        List<String> names = List.of("\u00c7elik", "Demir", "Zeytin");
+
+        Assert.assertTrue(OrderVerifier.isSorted(names, OrderVerifier.localeAware(Locale.forLanguageTag("tr-TR"))));
+        Assert.assertFalse(OrderVerifier.isSorted(names, OrderVerifier.NATURAL));
+    }
+
+    @Test
+    public void hiddenItemsAreLeftOutOfTheOrder() {
+        OrderVerifier verifier = OrderVerifier.ascending(OrderVerifier.NATURAL);
+
+        Assert.assertTrue(verifier.acceptElements(List.of(item("Apple", true), item("Zebra", false), item("Canon", true),
+                item("HP", true))));
+        Assert.assertEquals(verifier.getCheckedCount(), 3);
+    }
+
+    @Test
+    public void aVisibleItemWithoutTextIsStillCompared() {
+        OrderVerifier verifier = OrderVerifier.ascending(OrderVerifier.NATURAL);
+
+        Assert.assertFalse(verifier.acceptElements(List.of(item("Apple", true), item("", true), item("Canon", true))));
+        Assert.assertEquals(verifier.getViolation(), "'' at position 1 comes after 'Apple'");
+    }
+
+    // Like Selenium, a hidden element reports no text
+    private static WebElement item(String text, boolean displayed) {
+        return (WebElement) Proxy.newProxyInstance(OrderVerifierTest.class.getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isDisplayed":
+                            return displayed;
+                        case "getText":
+                            return displayed ? text : "";
+                        case "toString":
+                            return "Proxy element for: By.cssSelector: .product-layout h4 a";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
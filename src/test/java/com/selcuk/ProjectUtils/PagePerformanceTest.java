@@ -0,0 +1,169 @@
+package com.selcuk.ProjectUtils;
+
+import com.selcuk.Benchmarks.FakeWebDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PagePerformanceTest {
+    private static final String REGISTER_PAGE = PropertyUtils.getProperty("registerPageURL");
+
+    // Answers the capture script with the given sample, or null once the document is marked as captured, and can
+    // replace the current document so the old <html> element goes stale
+    static class MeasuredDriver extends FakeWebDriver {
+        final Map<String, Object> sample = new HashMap<>();
+        boolean captured;
+        boolean navigated;
+
+        MeasuredDriver() {
+            super(0, 1);
+            sample.put("url", REGISTER_PAGE);
+        }
+
+        @Override
+        public Object executeAsyncScript(String script, Object... args) {
+            super.executeAsyncScript(script, args);
+            if (captured) {
+                return null;
+            }
+            captured = true;
+            return sample;
+        }
+
+        @Override
+        public WebElement findElement(By by) {
+            WebElement element = super.findElement(by);
+            return (WebElement) Proxy.newProxyInstance(PagePerformanceTest.class.getClassLoader(), new Class<?>[]{WebElement.class},
+                    (proxy, method, args) -> {
+                        if (navigated) {
+                            throw new StaleElementReferenceException("document replaced");
+                        }
+                        return method.invoke(element, args);
+                    });
+        }
+
+        void loadNextPage() {
+            navigated = true;
+            captured = false;
+        }
+    }
+
+    @BeforeMethod
+    public void reset() {
+        PagePerformance.reset();
+    }
+
+    @Test
+    public void aSampleIsRecordedOncePerDocument() {
+        MeasuredDriver driver = new MeasuredDriver();
+        driver.sample.put("ttfb", 90L);
+        driver.sample.put("lcp", 1200.4);
+        driver.sample.put("cls", 0.05);
+        driver.sample.put("resources", 12L);
+
+        PagePerformance.measure(driver);
+        PagePerformance.measure(driver);
+
+        Map<String, LatencyHistogram> route = PagePerformance.getRoutes().get("registerPageURL");
+        Assert.assertEquals(driver.getCommandCount(), 2);
+        Assert.assertEquals(route.get("lcp").getCount(), 1);
+        Assert.assertEquals(route.get("lcp").getMax(), 1200);
+        // CLS is kept in thousandths
+        Assert.assertEquals(route.get("cls").getMax(), 50);
+        Assert.assertEquals(route.get("resources").getMax(), 12);
+        Assert.assertNull(route.get("fcp"));
+    }
+
+    @Test
+    public void aPageOverBudgetFailsAfterItIsRecorded() {
+        MeasuredDriver driver = new MeasuredDriver();
+        driver.sample.put("lcp", 5000L);
+        driver.sample.put("cls", 0.02);
+
+        AssertionError error = Assert.expectThrows(AssertionError.class, () -> PagePerformance.measure(driver));
+
+        Assert.assertEquals(error.getMessage(), "Page performance budget exceeded on registerPageURL: lcp 5000 > 4000");
+        Assert.assertEquals(PagePerformance.getRoutes().get("registerPageURL").get("lcp").getCount(), 1);
+    }
+
+    @Test
+    public void budgetsAreCheckedPerMetric() {
+        Map<String, Double> sample = new HashMap<>();
+        sample.put("cls", 0.25);
+        sample.put("lcp", 3999.0);
+        sample.put("ttfb", 100000.0);
+
+        AssertionError error = Assert.expectThrows(AssertionError.class, () -> PagePerformance.checkBudgets("registerPageURL", sample));
+        Assert.assertEquals(error.getMessage(), "Page performance budget exceeded on registerPageURL: cls 0.250 > 0.1");
+        PagePerformance.checkBudgets("registerPageURL", Map.of("cls", 0.1, "lcp", 4000.0));
+        PagePerformance.checkBudgets("noBudgetsHere", Map.of("lcp", 100000.0));
+    }
+
+    @Test
+    public void disabledCaptureIssuesNoCommands() {
+        MeasuredDriver driver = new MeasuredDriver();
+
+        Assert.assertFalse(PagePerformance.ENABLED);
+        PagePerformance.capture(driver);
+        PagePerformance.captureAfter(driver, driver::loadNextPage);
+
+        Assert.assertEquals(driver.getCommandCount(), 0);
+        Assert.assertTrue(driver.navigated);
+        Assert.assertTrue(PagePerformance.getRoutes().isEmpty());
+    }
+
+    @Test
+    public void captureAfterANavigationWaitsForTheNewDocument() {
+        MeasuredDriver driver = new MeasuredDriver();
+        driver.sample.put("lcp", 800L);
+        // The register page was already captured when it was opened
+        driver.captured = true;
+
+        PagePerformance.measureAfter(driver, driver::loadNextPage, Duration.ofSeconds(5));
+
+        Assert.assertEquals(PagePerformance.getRoutes().get("registerPageURL").get("lcp").getCount(), 1);
+    }
+
+    @Test
+    public void noNewDocumentMeansNoCapture() {
+        MeasuredDriver driver = new MeasuredDriver();
+        driver.sample.put("lcp", 800L);
+
+        PagePerformance.measureAfter(driver, () -> {
+        }, Duration.ofMillis(200));
+
+        Assert.assertFalse(driver.captured);
+        Assert.assertTrue(PagePerformance.getRoutes().isEmpty());
+    }
+
+    @Test
+    public void routeIsNamedAfterThePropertyWithTheSameQuery() {
+        Assert.assertEquals(PagePerformance.routeOf(
+                "https://tutorialsninja.com/demo/index.php?route=information/information&information_id=6"),
+                "deliveryInformationPage");
+        Assert.assertEquals(PagePerformance.routeOf(
+                "https://tutorialsninja.com/demo/index.php?route=account/forgotten#top"), "forgottenPasswordPage");
+    }
+
+    @Test
+    public void otherParametersFallBackToTheFirstPropertyForThatRoute() {
+        Assert.assertEquals(PagePerformance.routeOf(
+                "https://tutorialsninja.com/demo/index.php?route=information/information&information_id=99"),
+                "aboutUsPage");
+    }
+
+    @Test
+    public void unknownRoutesKeepTheirOwnName() {
+        Assert.assertEquals(PagePerformance.routeOf("https://tutorialsninja.com/demo/index.php?route=unknown/page"),
+                "unknown/page");
+        Assert.assertEquals(PagePerformance.routeOf("https://tutorialsninja.com/demo/"), "home");
+    }
+}
@@ -0,0 +1,71 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+public class PropertyUtilsTest {
+
+    @Test
+    public void storeKeepsOverlaysOutOfTheBaseFile() throws IOException {
+        Path base = Files.createTempFile("projectdata", ".properties");
+        Files.write(base, List.of(
+                "browserName=chrome",
+                "registerPageURL=https://tutorialsninja.com/demo/index.php?route=account/register",
+                "validPassword=12345"), StandardCharsets.ISO_8859_1);
+        // What loadPropertiesFile returned: a profile key, a -D override and a rewritten local storefront URL
+        Map<String, String> snapshot = Map.of(
+                "browserName", "firefox",
+                "registerPageURL", "http://127.0.0.1:8089/demo/index.php?route=account/register",
+                "validPassword", "12345",
+                "profileOnly", "ci");
+        Properties loaded = new Properties();
+        loaded.putAll(snapshot);
+
+        loaded.setProperty("validPassword", "67890");
+        loaded.setProperty("validEmail", "someone@example.test");
+        Properties stored = PropertyUtils.applyChanges(base, snapshot, loaded);
+
+        Assert.assertEquals(stored.getProperty("validPassword"), "67890");
+        Assert.assertEquals(stored.getProperty("validEmail"), "someone@example.test");
+        Assert.assertEquals(stored.getProperty("browserName"), "chrome");
+        Assert.assertEquals(stored.getProperty("registerPageURL"),
+                "https://tutorialsninja.com/demo/index.php?route=account/register");
+        Assert.assertNull(stored.getProperty("profileOnly"));
+        Assert.assertEquals(stored.size(), 4);
+    }
+
+    @Test
+    public void removedKeysLeaveTheBaseFile() throws IOException {
+        Path base = Files.createTempFile("projectdata", ".properties");
+        Files.write(base, List.of("keep=1", "drop=2"), StandardCharsets.ISO_8859_1);
+        Properties loaded = new Properties();
+        loaded.setProperty("keep", "1");
+
+        Properties stored = PropertyUtils.applyChanges(base, Map.of("keep", "1", "drop", "2"), loaded);
+
+        Assert.assertEquals(stored.getProperty("keep"), "1");
+        Assert.assertNull(stored.getProperty("drop"));
+    }
+
+    @Test
+    public void commandLineOptionsNameTheirKeys() {
+        Assert.assertEquals(PropertyUtils.commandLineKeys(List.of("-Xmx2g", "-DretryBudget=5", "-Dprofile=ci",
+                "-DpagePerformance", "-Durl=a=b", "-D", "-javaagent:agent.jar")),
+                Set.of("retryBudget", "profile", "pagePerformance", "url"));
+    }
+
+    @Test
+    public void theConfigFileHasAParentEvenWhenGivenByName() {
+        Assert.assertTrue(PropertyUtils.PROPERTIES_FILE.isAbsolute());
+        Assert.assertNotNull(PropertyUtils.PROPERTIES_FILE.getParent());
+    }
+}
@@ -0,0 +1,86 @@
+package com.selcuk.ProjectUtils;
+
+import com.selcuk.Benchmarks.FakeWebDriver;
+import org.openqa.selenium.Cookie;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.HttpCookie;
+
+public class SessionBootstrapperTest {
+    private LocalStorefrontServer server;
+    private SessionBootstrapper bootstrapper;
+
+    @BeforeMethod
+    public void startServer() {
+        server = new LocalStorefrontServer().start(0);
+        bootstrapper = newBootstrapper();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    private SessionBootstrapper newBootstrapper() {
+        String base = server.getBaseURL() + "index.php?route=";
+        return new SessionBootstrapper(server.getBaseURL(), base + "account/login", base + "account/register");
+    }
+
+    private static TestAccount account(String email) {
+        return new TestAccount("Ada", "Lovelace", email, "5551234", "secret123");
+    }
+
+    @Test
+    public void registeringLeavesASessionCookie() {
+        Assert.assertTrue(bootstrapper.register(account("ada@example.com")));
+
+        Assert.assertEquals(bootstrapper.getSessionCookies().size(), 1);
+        Assert.assertEquals(bootstrapper.getSessionCookies().get(0).getName(), "OCSESSID");
+    }
+
+    @Test
+    public void aRegisteredAccountCanLogInFromANewClient() {
+        Assert.assertTrue(bootstrapper.register(account("ada@example.com")));
+
+        SessionBootstrapper other = newBootstrapper();
+        Assert.assertTrue(other.login("ada@example.com", "secret123"));
+        Assert.assertTrue(other.login(account("ADA@example.com")));
+        Assert.assertFalse(other.getSessionCookies().isEmpty());
+    }
+
+    @Test
+    public void aWrongPasswordIsRejected() {
+        server.addAccount("grace@example.com", "hopper42");
+
+        Assert.assertFalse(bootstrapper.login("grace@example.com", "wrong"));
+        Assert.assertFalse(bootstrapper.login("nobody@example.com", "hopper42"));
+        Assert.assertTrue(bootstrapper.getSessionCookies().isEmpty());
+        Assert.assertTrue(bootstrapper.login("grace@example.com", "hopper42"));
+    }
+
+    @Test
+    public void aDuplicateRegistrationIsRejected() {
+        Assert.assertTrue(bootstrapper.register(account("ada@example.com")));
+
+        Assert.assertFalse(newBootstrapper().register(account("ada@example.com")));
+    }
+
+    @Test
+    public void theSessionIsHandedToTheBrowser() {
+        Assert.assertTrue(bootstrapper.register(account("ada@example.com")));
+        HttpCookie session = bootstrapper.getSessionCookies().get(0);
+        FakeWebDriver driver = new FakeWebDriver(0, 1);
+        String accountPage = server.getBaseURL() + "index.php?route=account/account";
+
+        bootstrapper.injectSessionInto(driver, accountPage);
+
+        Cookie cookie = driver.manage().getCookieNamed("OCSESSID");
+        Assert.assertNotNull(cookie);
+        Assert.assertEquals(cookie.getValue(), session.getValue());
+        Assert.assertEquals(cookie.getPath(), "/");
+        Assert.assertEquals(driver.getCurrentUrl(), accountPage);
+    }
+}
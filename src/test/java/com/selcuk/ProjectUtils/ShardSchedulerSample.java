@@ -0,0 +1,43 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+// Test methods for ShardSchedulerTest to discover; never run itself, so it is not named *Test
+public class ShardSchedulerSample {
+    @Test
+    public void plain() {
+    }
+
+    @Test(enabled = false)
+    public void disabled() {
+    }
+
+    @Test(dataProvider = "rows")
+    public void fromArray(String value) {
+    }
+
+    @Test(dataProvider = "iterated")
+    public void fromIterator(String value) {
+    }
+
+    @Test(dataProvider = "elsewhere")
+    public void fromAnotherClass(String value) {
+    }
+
+    @DataProvider
+    public Object[][] rows() {
+        return new Object[][]{{"a"}, {"b"}, {"c"}};
+    }
+
+    @DataProvider(name = "iterated")
+    public static Iterator<Object[]> iteratedRows() {
+        return Arrays.asList(new Object[]{"x"}, new Object[]{"y"}).iterator();
+    }
+
+    public void helper() {
+    }
+}
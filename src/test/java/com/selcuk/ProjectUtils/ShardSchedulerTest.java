@@ -0,0 +1,40 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class ShardSchedulerTest {
+
+    @Test
+    public void methodsAndDataRowsBecomeItems() throws Exception {
+        List<String> items = ShardScheduler.discoverItems(ShardSchedulerSample.class);
+        String name = ShardSchedulerSample.class.getName();
+
+        Assert.assertEqualsNoOrder(items.toArray(), new Object[]{
+                name + "#plain",
+                name + "#fromArray#0", name + "#fromArray#1", name + "#fromArray#2",
+                name + "#fromIterator#0", name + "#fromIterator#1",
+                // Its provider is not in the class, so all its rows run as one item
+                name + "#fromAnotherClass"});
+    }
+
+    @Test
+    public void retriesComeOutOfOneBudgetForTheWholeRun() {
+        ShardScheduler scheduler = new ShardScheduler(4, null);
+        int budget = PropertyUtils.getIntProperty("retryBudget", 20);
+
+        for (int i = 0; i < budget; i++) {
+            Assert.assertTrue(scheduler.grantRetry(), "retry " + i);
+        }
+        Assert.assertFalse(scheduler.grantRetry());
+        Assert.assertFalse(scheduler.grantRetry());
+    }
+
+    @Test
+    public void itemIdsMatchWhatWorkersReport() {
+        Assert.assertEquals(ShardScheduler.itemId("a.B", "m", -1), "a.B#m");
+        Assert.assertEquals(ShardScheduler.itemId("a.B", "m", 0), "a.B#m#0");
+    }
+}
@@ -0,0 +1,55 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class ShardWorkerTest {
+
+    @AfterMethod
+    public void clearRow() {
+        ShardWorker.selectedRow = -1;
+    }
+
+    @Test
+    public void onlyTheSelectedRowIsRun() {
+        ShardWorker.selectedRow = 1;
+
+        List<Object[]> rows = drain(new ShardWorker().intercept(rows("a", "b", "c"), null, null, null));
+
+        Assert.assertEquals(rows.size(), 1);
+        Assert.assertEquals(rows.get(0)[0], "b");
+    }
+
+    @Test
+    public void allRowsRunWhenNoneIsSelected() {
+        List<Object[]> rows = drain(new ShardWorker().intercept(rows("a", "b"), null, null, null));
+
+        Assert.assertEquals(rows.size(), 2);
+    }
+
+    @Test
+    public void aRowPastTheEndRunsNothing() {
+        ShardWorker.selectedRow = 5;
+
+        Assert.assertTrue(drain(new ShardWorker().intercept(rows("a"), null, null, null)).isEmpty());
+    }
+
+    private static Iterator<Object[]> rows(String... values) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String value : values) {
+            rows.add(new Object[]{value});
+        }
+        return rows.iterator();
+    }
+
+    private static List<Object[]> drain(Iterator<Object[]> iterator) {
+        List<Object[]> rows = new ArrayList<>();
+        iterator.forEachRemaining(rows::add);
+        return rows;
+    }
+}
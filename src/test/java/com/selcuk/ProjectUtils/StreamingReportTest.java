@@ -0,0 +1,90 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StreamingReportTest {
+
+    private static String line(String test, String status, long durationMs, String message) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("test", test);
+        values.put("status", status);
+        values.put("durationMs", durationMs);
+        values.put("thread", "main");
+        values.put("screenshot", null);
+        values.put("message", message);
+        return StreamingReport.toJson(values);
+    }
+
+    @Test
+    public void jsonRoundTripKeepsSpecialCharacters() {
+        String message = "quote \" backslash \\ newline \n tab \t bell \u0007 unicode \u00e7";
+        Map<String, String> parsed = StreamingReport.parseFlatJson(line("a,b}", "FAIL", 42, message));
+
+        Assert.assertEquals(parsed.get("test"), "a,b}");
+        Assert.assertEquals(parsed.get("status"), "FAIL");
+        Assert.assertEquals(parsed.get("durationMs"), "42");
+        Assert.assertEquals(parsed.get("message"), message);
+        Assert.assertTrue(parsed.containsKey("screenshot"));
+        Assert.assertNull(parsed.get("screenshot"));
+    }
+
+    @Test
+    public void mergeCountsAndListsEveryShardLine() throws IOException {
+        Path directory = Files.createTempDirectory("shards");
+        Files.write(directory.resolve("results-shard-0.ndjson"), List.of(
+                line("registerWithMandatoryFields", "PASS", 1200, null),
+                "",
+                line("registerWithExistingEmail", "FAIL", 800, "<expected> warning")), StandardCharsets.UTF_8);
+        Files.write(directory.resolve("results-shard-1.ndjson"), List.of(
+                line("registerWithoutPrivacyPolicy", "PASS", 1000, null)), StandardCharsets.UTF_8);
+        // Only .ndjson files are shards
+        Files.write(directory.resolve("notes.txt"), List.of(line("ignored", "PASS", 5, null)), StandardCharsets.UTF_8);
+        Path html = directory.resolve("out").resolve("report.html");
+
+        StreamingReport.mergeShardsIntoHtml(directory, html);
+
+        String report = new String(Files.readAllBytes(html), StandardCharsets.UTF_8);
+        Assert.assertTrue(report.contains("PASS: 2"), report);
+        Assert.assertTrue(report.contains("FAIL: 1"), report);
+        Assert.assertTrue(report.contains("Total duration: 3000 ms"), report);
+        Assert.assertTrue(report.contains("Shards: 2"), report);
+        Assert.assertTrue(report.contains("&lt;expected&gt; warning"), report);
+        Assert.assertFalse(report.contains("ignored"), report);
+        Assert.assertTrue(report.indexOf("registerWithMandatoryFields") < report.indexOf("registerWithoutPrivacyPolicy"));
+    }
+
+    @Test
+    public void mergeOfMissingDirectoryWritesEmptyReport() throws IOException {
+        Path directory = Files.createTempDirectory("shards");
+        Path html = directory.resolve("report.html");
+
+        StreamingReport.mergeShardsIntoHtml(directory.resolve("missing"), html);
+
+        String report = new String(Files.readAllBytes(html), StandardCharsets.UTF_8);
+        Assert.assertTrue(report.contains("Shards: 0"), report);
+    }
+
+    @Test
+    public void clearShardsRemovesOnlyShards() throws IOException {
+        Path directory = Files.createTempDirectory("shards");
+        Files.write(directory.resolve("results-shard-0.ndjson"), List.of(line("old", "PASS", 1, null)), StandardCharsets.UTF_8);
+        Files.write(directory.resolve("notes.txt"), List.of("kept"), StandardCharsets.UTF_8);
+        Path html = directory.resolve("report.html");
+
+        StreamingReport.clearShards(directory);
+        StreamingReport.mergeShardsIntoHtml(directory, html);
+
+        Assert.assertFalse(Files.exists(directory.resolve("results-shard-0.ndjson")));
+        Assert.assertTrue(Files.exists(directory.resolve("notes.txt")));
+        Assert.assertFalse(new String(Files.readAllBytes(html), StandardCharsets.UTF_8).contains(">old<"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+public class TestImpactIndexTest {
+    private static final String REGISTER = "com.selcuk.Tests.RegisterTest#registerWithMandatoryFields";
+    private static final String LOGIN = "com.selcuk.Tests.LoginTest#loginWithValidCredentials";
+    private static final String SEARCH = "com.selcuk.Tests.SearchTest#searchExistingProduct";
+
+    private static TestImpactIndex index() throws IOException {
+        Path file = Files.createTempFile("test-impact-index", ".properties");
+        Files.write(file, List.of(
+                REGISTER + "=class\\:RegisterPage\\tmethod\\:RegisterPage.registeringAnAccount"
+                        + "\\tlocator\\:By.id\\: input-firstname\\tproperty\\:registerPageURL",
+                LOGIN + "=class\\:LoginPage\\tproperty\\:loginPageURL\\tsheet\\:Login",
+                "com.selcuk.Tests.SearchTest#<configuration>=class\\:HomePage"), StandardCharsets.UTF_8);
+        return TestImpactIndex.load(file);
+    }
+
+    @Test
+    public void selectsTestsThatUsedAChangedDependency() throws IOException {
+        TestImpactIndex index = index();
+
+        Assert.assertEquals(index.select(List.of("class:RegisterPage")), Set.of(REGISTER));
+        Assert.assertEquals(index.select(List.of("sheet:Login", "property:registerPageURL")), Set.of(REGISTER, LOGIN));
+        Assert.assertEquals(index.select(List.of("findBy:input-firstname")), Set.of(REGISTER));
+        Assert.assertEquals(index.select(List.of("testClass:LoginTest")), Set.of(LOGIN));
+        Assert.assertEquals(index.select(List.of("class:CheckoutPage")), Set.of());
+        Assert.assertEquals(index.select(List.of(TestImpactIndex.ALL)).size(), 3);
+    }
+
+    @Test
+    public void unknownTestsAndChangedClassConfigurationAlwaysRun() throws IOException {
+        TestImpactIndex index = index();
+        Set<String> selected = index.select(List.of("class:HomePage"));
+
+        Assert.assertTrue(index.isImpacted(SEARCH, selected));
+        Assert.assertTrue(index.isImpacted("com.selcuk.Tests.NewTest#brandNew", selected));
+        Assert.assertFalse(index.isImpacted(REGISTER, selected));
+    }
+
+    @Test
+    public void workerRecordingsSurviveTheRoundTripThroughTheScheduler() {
+        TestImpactIndex.drainRecorded();
+        TestImpactIndex.mergeRecorded(REGISTER + "\tclass:RegisterPage\tproperty:registerPageURL");
+        TestImpactIndex.mergeRecorded(REGISTER + "\tclass:RegisterPage\tsheet:Register");
+
+        Assert.assertEquals(TestImpactIndex.drainRecorded(),
+                List.of(REGISTER + "\tclass:RegisterPage\tproperty:registerPageURL\tsheet:Register"));
+        Assert.assertEquals(TestImpactIndex.drainRecorded(), List.of());
+    }
+
+    @Test
+    public void unknownBaseRefFailsTheSelection() {
+        IOException failure = Assert.expectThrows(IOException.class,
+                () -> TestImpactIndex.changesSince("no-such-ref-for-impact-selection"));
+
+        Assert.assertTrue(failure.getMessage().contains("exited with"), failure.getMessage());
+    }
+}
@@ -0,0 +1,21 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+// Run by TimingHistoryTest through its own TestNG instance; never run itself, so it is not named *Test
+public class TimingHistorySample {
+    @Test
+    public void passes() throws InterruptedException {
+        Thread.sleep(20);
+    }
+
+    @Test(dataProvider = "rows")
+    public void passesPerRow(int row) {
+    }
+
+    @DataProvider
+    public Object[][] rows() {
+        return new Object[][]{{0}, {1}};
+    }
+}
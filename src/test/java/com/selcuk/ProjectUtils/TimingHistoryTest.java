@@ -0,0 +1,99 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+public class TimingHistoryTest {
+
+    private static long[] series(long[] baseline, long[] recent) {
+        return LongStream.concat(LongStream.of(baseline), LongStream.of(recent)).toArray();
+    }
+
+    @Test
+    public void mannWhitneyZIsPositiveWhenTheSampleIsLarger() {
+        long[] reference = {100, 102, 98, 101, 99, 103, 97, 100, 101, 99};
+        long[] slower = {130, 128, 135, 131, 129};
+
+        Assert.assertTrue(TimingHistory.mannWhitneyZ(slower, reference) > 3);
+        Assert.assertTrue(TimingHistory.mannWhitneyZ(reference, slower) < -3);
+    }
+
+    @Test
+    public void mannWhitneyZMatchesAHandComputedValue() {
+        // Ranks of {4, 5} among {1, 2, 3, 4, 5}: U = 6, mean 3, variance 3, continuity-corrected z = 2.5 / sqrt(3)
+        Assert.assertEquals(TimingHistory.mannWhitneyZ(new long[]{4, 5}, new long[]{1, 2, 3}), 2.5 / Math.sqrt(3), 1e-9);
+    }
+
+    @Test
+    public void identicalValuesAreNeverARegression() {
+        long[] flat = new long[20];
+        Arrays.fill(flat, 250);
+
+        Assert.assertEquals(TimingHistory.mannWhitneyZ(new long[]{250, 250}, new long[]{250, 250, 250}), 0.0);
+        Assert.assertNull(TimingHistory.detect("test:flat", flat, 0.10));
+    }
+
+    @Test
+    public void detectFlagsASignificantSlowdown() {
+        long[] history = series(new long[]{100, 102, 98, 101, 99, 103, 97, 100, 101, 99}, new long[]{130, 128, 135, 131, 129});
+
+        TimingHistory.Regression regression = TimingHistory.detect("test:slow", history, 0.10);
+
+        Assert.assertNotNull(regression);
+        Assert.assertEquals(regression.baselineMedian, 100);
+        Assert.assertEquals(regression.recentMedian, 130);
+    }
+
+    @Test
+    public void detectIgnoresSmallShiftsAndShortHistories() {
+        long[] baseline = {100, 102, 98, 101, 99, 103, 97, 100, 101, 99};
+
+        Assert.assertNull(TimingHistory.detect("test:noisy", series(baseline, new long[]{105, 106, 104, 107, 105}), 0.10));
+        Assert.assertNull(TimingHistory.detect("test:new", series(new long[]{100, 100, 100}, new long[]{300, 300, 300, 300, 300}), 0.10));
+        Assert.assertNull(TimingHistory.detect("test:faster", series(baseline, new long[]{60, 61, 59, 62, 60}), 0.10));
+    }
+
+    @Test
+    public void workerTimingsSurviveTheRoundTripThroughTheScheduler() {
+        TimingHistory.drainRun();
+        String item = ShardScheduler.itemId("com.selcuk.Tests.RegisterTest", "registerWithMandatoryFields", 2);
+        TimingHistory.recordTest(item, "PASS", 1200);
+        TimingHistory.recordTest(item, "FAIL", 9000);
+
+        List<String> reported = TimingHistory.drainRun();
+        Assert.assertEquals(reported, List.of("1200 test:com.selcuk.Tests.RegisterTest#registerWithMandatoryFields#2"));
+        Assert.assertEquals(TimingHistory.drainRun(), List.of());
+
+        for (String line : reported) {
+            TimingHistory.mergeRun(line);
+        }
+        Assert.assertEquals(TimingHistory.drainRun(), reported);
+    }
+
+    @Test
+    public void passingTestsAreTimedWithoutAReport() {
+        TimingHistory.drainRun();
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setTestClasses(new Class<?>[]{TimingHistorySample.class});
+        testng.addListener(new TimingHistory());
+        TimingHistory.reportToScheduler = true;
+        try {
+            testng.run();
+        } finally {
+            TimingHistory.reportToScheduler = false;
+        }
+
+        List<String> recorded = TimingHistory.drainRun();
+        String name = TimingHistorySample.class.getName();
+        Assert.assertEquals(recorded.size(), 3, recorded.toString());
+        Assert.assertTrue(recorded.stream().filter(line -> line.endsWith(" test:" + name + "#passesPerRow")).count() == 2, recorded.toString());
+        String passes = recorded.stream().filter(line -> line.endsWith(" test:" + name + "#passes")).findFirst().orElseThrow();
+        Assert.assertTrue(Long.parseLong(passes.split(" ")[0]) >= 20, passes);
+    }
+}
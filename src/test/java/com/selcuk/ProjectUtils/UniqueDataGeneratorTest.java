@@ -0,0 +1,49 @@
+package com.selcuk.ProjectUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+public class UniqueDataGeneratorTest {
+
+    @Test
+    public void valuesAreUniqueAcrossThreads() {
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        Set<String> phones = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 20_000).parallel().forEach(i -> {
+            Assert.assertTrue(emails.add(UniqueDataGenerator.generateEmail()));
+            Assert.assertTrue(names.add(UniqueDataGenerator.generateFirstName()));
+            Assert.assertTrue(phones.add(UniqueDataGenerator.generateTelephoneNumber()));
+        });
+    }
+
+    @Test
+    public void valuesPassTheRegistrationFormRules() {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String email = UniqueDataGenerator.generateEmail();
+            String lastName = UniqueDataGenerator.generateLastName();
+            String phone = UniqueDataGenerator.generateTelephoneNumber();
+
+            Assert.assertTrue(email.matches("[a-z]+@gmail\\.com"), email);
+            Assert.assertTrue(lastName.matches("Browning[a-z]+") && lastName.length() <= 32, lastName);
+            Assert.assertTrue(phone.matches("[0-9]{22,32}"), phone);
+            Assert.assertTrue(seen.add(email) && seen.add(lastName) && seen.add(phone));
+        }
+    }
+
+    @Test
+    public void valuesOfOneForkShareTheFixedWidthPrefix() {
+        String first = UniqueDataGenerator.generateTelephoneNumber();
+        String second = UniqueDataGenerator.generateTelephoneNumber();
+
+        Assert.assertEquals(first.substring(0, 21), second.substring(0, 21));
+        Assert.assertEquals(Long.parseLong(second.substring(21)), Long.parseLong(first.substring(21)) + 1);
+    }
+}
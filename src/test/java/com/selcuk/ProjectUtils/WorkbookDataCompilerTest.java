@@ -0,0 +1,106 @@
+package com.selcuk.ProjectUtils;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorkbookDataCompilerTest {
+
+    // MyXLSReader resolves its path against user.dir, so the temp workbook is passed relative to it
+    private static MyXLSReader workbook(String sheetName, String[]... rows) throws IOException {
+        Path file = Files.createTempDirectory("workbook").resolve("testdata.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet(sheetName);
+            for (int i = 0; i < rows.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < rows[i].length; j++) {
+                    if (!rows[i][j].isEmpty()) {
+                        row.createCell(j).setCellValue(rows[i][j]);
+                    }
+                }
+            }
+            workbook.write(out);
+        }
+        Path userDir = Paths.get(System.getProperty("user.dir")).toAbsolutePath();
+        return new MyXLSReader("/" + userDir.relativize(file.toAbsolutePath()).toString().replace('\\', '/'));
+    }
+
+    private static String[] row(String... cells) {
+        return cells;
+    }
+
+    @Test
+    public void readsEveryBlockOfAWellFormedSheet() throws IOException {
+        MyXLSReader reader = workbook("Login",
+                row("validLogin"),
+                row("Username", "Password"),
+                row("a@example.com", "12345"),
+                row("b@example.com", "67890"),
+                row(),
+                row("invalidLogin"),
+                row("Username"),
+                row("nobody@example.com"));
+        List<String> errors = new ArrayList<>();
+
+        List<WorkbookDataCompiler.Block> blocks = WorkbookDataCompiler.readBlocks(reader, "Login", errors);
+
+        Assert.assertEquals(errors, List.of());
+        Assert.assertEquals(blocks.size(), 2);
+        Assert.assertEquals(blocks.get(0).name, "validLogin");
+        Assert.assertEquals(blocks.get(0).row, 1);
+        Assert.assertEquals(blocks.get(0).headers, List.of("Username", "Password"));
+        Assert.assertEquals(blocks.get(0).rows, List.of(List.of("a@example.com", "12345"), List.of("b@example.com", "67890")));
+        Assert.assertEquals(blocks.get(1).name, "invalidLogin");
+        Assert.assertEquals(blocks.get(1).row, 6);
+        Assert.assertEquals(blocks.get(1).rows, List.of(List.of("nobody@example.com")));
+    }
+
+    @Test
+    public void reportsSchemaErrorsWithSheetAndRow() throws IOException {
+        MyXLSReader reader = workbook("Register",
+                row("register", "extra"),
+                row("Email", "Email"),
+                row("a@example.com", "b@example.com", "stray"),
+                row(),
+                row("register"),
+                row("Email"),
+                row(),
+                row("noHeaders"));
+        List<String> errors = new ArrayList<>();
+
+        WorkbookDataCompiler.readBlocks(reader, "Register", errors);
+
+        Assert.assertEquals(errors, List.of(
+                "Register row 1 (register): test name row has more than one cell",
+                "Register row 1 (register): duplicate column 'Email'",
+                "Register row 3: value beyond the last header of register",
+                "Register row 5 (register): duplicate test name; getTestData would only ever return the first block",
+                "Register row 5 (register): test name maps to the same Java identifier as another block",
+                "Register row 5 (register): no data rows",
+                "Register row 8 (noHeaders): no header row below the test name"));
+    }
+
+    @Test
+    public void methodNamesAvoidKeywordsAndGeneratedMembers() {
+        Assert.assertEquals(WorkbookDataCompiler.methodName("class"), "classData");
+        Assert.assertEquals(WorkbookDataCompiler.methodName("get"), "getData");
+        Assert.assertEquals(WorkbookDataCompiler.methodName("toMaps"), "toMapsData");
+        Assert.assertEquals(WorkbookDataCompiler.methodName("validLogin"), "validLogin");
+    }
+
+    @Test
+    public void literalsStayAscii() {
+        Assert.assertEquals(WorkbookDataCompiler.literal("say \"hi\"\n"), "\"say \\\"hi\\\"\\n\"");
+        Assert.assertEquals(WorkbookDataCompiler.literal("\u00e7a\\"), "\"\\u00e7a\\\\\"");
+    }
+}